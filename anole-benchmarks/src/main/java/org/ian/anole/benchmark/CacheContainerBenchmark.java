@@ -0,0 +1,141 @@
+package org.ian.anole.benchmark;
+
+import org.ian.anole.cache.CacheContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc cache container reads and writes over zipfian keys , single thread and contended
+ * <p>
+ * the container is created by the static factory every anole version has , so the same benchmarks
+ * compare versions , options of newer versions are benchmarked by subclasses
+ **/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheContainerBenchmark {
+
+    private static final int SEQUENCE_LENGTH = 1 << 20;
+
+    private static final int SEQUENCE_MASK = SEQUENCE_LENGTH - 1;
+
+    /**
+     * keys outnumber the cache size , so the skew decides the hit rate
+     */
+    @Param({"100000"})
+    private int keyCount;
+
+    @Param({"10000"})
+    protected int size;
+
+    private CacheContainer<Integer, Integer> container;
+
+    private Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        container = create();
+        int[] sequence = Zipf.keys(SEQUENCE_LENGTH, keyCount, 0.99, 42);
+        keys = new Integer[SEQUENCE_LENGTH];
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            // box once here , so the benchmark measures the cache and not Integer.valueOf
+            keys[i] = sequence[i];
+        }
+        for (int i = 0; i < size; i++) {
+            container.addCacheValue(keys[i], keys[i]);
+        }
+    }
+
+    /**
+     * create the benchmarked container , values never expire
+     *
+     * @return cache container of the benchmark size
+     */
+    protected CacheContainer<Integer, Integer> create() {
+        return CacheContainer.of(size, -1);
+    }
+
+    /**
+     * per thread cursor into the key sequence , threads start at different offsets
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index = ThreadLocalRandom.current().nextInt(SEQUENCE_LENGTH);
+
+        int next() {
+            return index++ & SEQUENCE_MASK;
+        }
+
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer read(Cursor cursor) {
+        return container.getCacheValue(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer readThrough(Cursor cursor) {
+        return container.getCacheValue(keys[cursor.next()], k -> k);
+    }
+
+    /**
+     * 75% reads , 25% writes
+     */
+    @Benchmark
+    @Threads(1)
+    public Integer readWrite(Cursor cursor) {
+        int i = cursor.next();
+        Integer key = keys[i];
+        if ((i & 3) == 0) {
+            container.addCacheValue(key, key);
+            return key;
+        }
+        return container.getCacheValue(key);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer readThroughContended(Cursor cursor) {
+        return container.getCacheValue(keys[cursor.next()], k -> k);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public Integer mixedRead(Cursor cursor) {
+        return container.getCacheValue(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public void mixedWrite(Cursor cursor) {
+        Integer key = keys[cursor.next()];
+        container.addCacheValue(key, key);
+    }
+
+}
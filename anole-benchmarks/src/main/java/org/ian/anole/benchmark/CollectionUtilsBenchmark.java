@@ -0,0 +1,65 @@
+package org.ian.anole.benchmark;
+
+import org.ian.anole.collection.CollectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc collection utils over lists of several sizes and duplicate ratios
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectionUtilsBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int length;
+
+    /**
+     * distinct values per list length , 1 means no duplicates
+     */
+    @Param({"1", "0.1"})
+    private double distinctRatio;
+
+    private List<Integer> list;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new ArrayList<>(length);
+        if (distinctRatio >= 1) {
+            for (int i = 0; i < length; i++) {
+                list.add(i);
+            }
+            return;
+        }
+        int[] sequence = Zipf.keys(length, Math.max(1, (int) (length * distinctRatio)), 0.8, 7);
+        for (int value : sequence) {
+            list.add(value);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> toDistinctList() {
+        return CollectionUtils.toDistinctList(list);
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.ian.anole.benchmark;
+
+import org.ian.anole.time.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc date utils formatting and parsing with valid and invalid input
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateUtilsBenchmark {
+
+    private final String time1 = "2022-11-14 15:30:33";
+
+    private final String time2 = "2022-11-15 08:01:09";
+
+    private final String invalid = "2022-13-xx 15:30";
+
+    @Benchmark
+    public String now() {
+        return DateUtils.now();
+    }
+
+    @Benchmark
+    public String nowDay() {
+        return DateUtils.nowStr(DateUtils.YMD);
+    }
+
+    @Benchmark
+    public String dayOffset() {
+        return DateUtils.getDayOffsetStr(-1, DateUtils.YMD);
+    }
+
+    @Benchmark
+    public String convertValid() {
+        return DateUtils.convertToStr(time1, DateUtils.YMDHMS, DateUtils.YMDH);
+    }
+
+    @Benchmark
+    public String convertInvalid() {
+        return DateUtils.convertToStr(invalid, DateUtils.YMDHMS, DateUtils.YMDH);
+    }
+
+    @Benchmark
+    public long computeDistance() {
+        return DateUtils.computeDistance(time1, time2, DateUtils.YMDHMS, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public int compareInvalid() {
+        return DateUtils.compareASC(invalid, time2, DateUtils.YMDHMS);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String convertValidContended() {
+        return DateUtils.convertToStr(time1, DateUtils.YMDHMS, DateUtils.YMDH);
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.ian.anole.benchmark;
+
+import org.ian.anole.cache.CacheContainer;
+import org.ian.anole.cache.EvictionPolicy;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc the cache container benchmarks per eviction policy on a segmented container , left out when built
+ * against another anole version
+ **/
+public class EvictionPolicyBenchmark extends CacheContainerBenchmark {
+
+    @Param({"LRU", "TINY_LFU"})
+    private EvictionPolicy policy;
+
+    @Override
+    protected CacheContainer<Integer, Integer> create() {
+        return CacheContainer.<Integer, Integer>builder()
+                .size(size)
+                .expire(-1)
+                .evictionPolicy(policy)
+                .concurrencyLevel(16)
+                .build();
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.ian.anole.benchmark;
+
+import org.ian.anole.cache.LongKeyCacheContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc long key cache container over the same zipfian keys as the cache container benchmark , left out
+ * when built against another anole version
+ **/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LongKeyCacheContainerBenchmark {
+
+    private static final int SEQUENCE_LENGTH = 1 << 20;
+
+    private static final int SEQUENCE_MASK = SEQUENCE_LENGTH - 1;
+
+    private LongKeyCacheContainer<Long> container;
+
+    private long[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        container = LongKeyCacheContainer.of(10000, -1);
+        int[] sequence = Zipf.keys(SEQUENCE_LENGTH, 100000, 0.99, 42);
+        keys = new long[SEQUENCE_LENGTH];
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            keys[i] = sequence[i];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index = ThreadLocalRandom.current().nextInt(SEQUENCE_LENGTH);
+
+        int next() {
+            return index++ & SEQUENCE_MASK;
+        }
+
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long readThrough(Cursor cursor) {
+        return container.getCacheValue(keys[cursor.next()], k -> k);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Long readThroughContended(Cursor cursor) {
+        return container.getCacheValue(keys[cursor.next()], k -> k);
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.ian.anole.benchmark;
+
+import org.ian.anole.safe.TypeSafe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc safe parsing of valid , invalid and empty input , invalid input is the exception path
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeSafeBenchmark {
+
+    @Param({"123456", "-42", "12a4", "", "99999999999"})
+    private String raw;
+
+    @Benchmark
+    public int parseInt() {
+        return TypeSafe.parseInt(raw);
+    }
+
+    @Benchmark
+    public long parseLong() {
+        return TypeSafe.parseLong(raw);
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        return TypeSafe.parseDouble(raw);
+    }
+
+}
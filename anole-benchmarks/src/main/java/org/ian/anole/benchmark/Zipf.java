@@ -0,0 +1,50 @@
+package org.ian.anole.benchmark;
+
+import java.util.Random;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc zipfian key sequence , a few hot keys take most requests like real cache traffic
+ **/
+final class Zipf {
+
+    private Zipf() {
+    }
+
+    /**
+     * generate a key sequence , it is generated once in setup so the benchmark only walks an array
+     *
+     * @param length   sequence length
+     * @param keyCount distinct key count
+     * @param exponent skew , 0 is uniform and about 1 is typical
+     * @param seed     random seed , a fixed seed keeps runs comparable
+     * @return key sequence , key 0 is the hottest
+     */
+    static int[] keys(int length, int keyCount, double exponent, long seed) {
+        double[] cdf = new double[keyCount];
+        double sum = 0;
+        for (int i = 0; i < keyCount; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        Random random = new Random(seed);
+        int[] keys = new int[length];
+        for (int i = 0; i < length; i++) {
+            double u = random.nextDouble() * sum;
+            int low = 0;
+            int high = keyCount - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cdf[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            keys[i] = low;
+        }
+        return keys;
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.ian.anole.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc async view of a cache container , hits complete at once and misses are loaded on the
+ * container executor so callers never block on loaders
+ **/
+public class AsyncCacheContainer<K, V> {
+
+    /**
+     * backing cache container
+     */
+    private final CacheContainer<K, V> container;
+
+    /**
+     * async loads in flight , so concurrent async misses of one key hold one executor thread
+     */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> pending = new ConcurrentHashMap<>();
+
+    AsyncCacheContainer(CacheContainer<K, V> container) {
+        this.container = container;
+    }
+
+    /**
+     * get cache value future by cache key , the loader runs on the executor if missed
+     *
+     * @param key    cache key
+     * @param loader cache value create when miss
+     * @return future of cache value , completes with null if loader gives nothing
+     */
+    public CompletableFuture<V> get(K key, Function<K, V> loader) {
+        V v = container.getIfPresent(key, loader);
+        if (v != null || container.isAbsent(key)) {
+            return CompletableFuture.completedFuture(v);
+        }
+        if (key == null) {
+            return CompletableFuture.supplyAsync(() -> container.loadMissed(null, loader), container.getExecutor());
+        }
+        CompletableFuture<V> future = pending.get(key);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        future = pending.putIfAbsent(key, created);
+        if (future != null) {
+            return future;
+        }
+        created.whenComplete((r, e) -> pending.remove(key, created));
+        try {
+            container.getExecutor().execute(() -> {
+                try {
+                    created.complete(container.loadMissed(key, loader));
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * get cache value map future by cache keys , missed keys are bulk loaded on the executor
+     *
+     * @param keys   cache keys
+     * @param loader bulk cache value create when miss , result is keyed by cache key
+     * @return future of cache value map , keys without value are absent
+     */
+    public CompletableFuture<Map<K, V>> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missKeySet = new HashSet<>();
+        for (K k : keys) {
+            V v = container.getIfPresent(k, null);
+            if (v != null) {
+                result.put(k, v);
+            } else if (!container.isAbsent(k)) {
+                missKeySet.add(k);
+            }
+        }
+        if (missKeySet.isEmpty() || loader == null) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            result.putAll(container.loadAll(missKeySet, loader));
+            return result;
+        }, container.getExecutor());
+    }
+
+    /**
+     * refresh cache value on the executor
+     *
+     * @param key    cache key
+     * @param loader create fresh cache value
+     * @return future of the fresh cache value
+     */
+    public CompletableFuture<V> refresh(K key, Function<K, V> loader) {
+        return container.refreshCacheValue(key, loader);
+    }
+
+    /**
+     * get the blocking cache container behind this view
+     *
+     * @return cache container
+     */
+    public CacheContainer<K, V> synchronous() {
+        return container;
+    }
+
+}
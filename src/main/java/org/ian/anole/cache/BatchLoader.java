@@ -0,0 +1,186 @@
+package org.ian.anole.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc merge the loads of many threads into one bulk load
+ * <p>
+ * the first caller of a batch waits up to the max delay for other callers to join , then runs
+ * the bulk loader on its own thread and fans the result out to every caller of the batch . a
+ * batch that reaches the max batch size is dispatched at once . it is a fallback function , so
+ * concurrent single key misses of a cache container are merged by passing it to get cache value ,
+ * and bulk misses join the same batches through load all
+ **/
+public class BatchLoader<K, V> implements Function<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> bulkLoader;
+
+    private final int maxBatchSize;
+
+    private final long maxDelayNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * signalled when the open batch is full
+     */
+    private final Condition full = lock.newCondition();
+
+    /**
+     * batch that still accepts keys , guarded by lock
+     */
+    private Batch<K, V> open;
+
+    /**
+     * create a batch loader
+     *
+     * @param bulkLoader   load a key set in one call , keys without value may be absent from the result
+     * @param maxBatchSize max key count of one bulk load
+     * @param maxDelay     max time the first caller waits for others , unit is millisecond
+     * @param <K>          cache key
+     * @param <V>          cache value
+     * @return batch loader
+     */
+    public static <K, V> BatchLoader<K, V> of(Function<Set<K>, Map<K, V>> bulkLoader, int maxBatchSize, long maxDelay) {
+        return new BatchLoader<>(bulkLoader, maxBatchSize, TimeUnit.MILLISECONDS.toNanos(maxDelay));
+    }
+
+    private BatchLoader(Function<Set<K>, Map<K, V>> bulkLoader, int maxBatchSize, long maxDelayNanos) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("max batch size must be positive : " + maxBatchSize);
+        }
+        if (maxDelayNanos < 0) {
+            throw new IllegalArgumentException("max delay must not be negative : " + maxDelayNanos);
+        }
+        this.bulkLoader = bulkLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * load one key within a batch
+     *
+     * @param key cache key
+     * @return loaded value , null if the bulk loader gave nothing for the key
+     */
+    @Override
+    public V apply(K key) {
+        return join(enqueue(Collections.singleton(key)).get(key)).get(key);
+    }
+
+    /**
+     * load keys within batches , keys beyond the max batch size go to further batches
+     *
+     * @param keys cache keys
+     * @return loaded value map , keys without value are absent
+     */
+    public Map<K, V> loadAll(Collection<K> keys) {
+        Map<K, V> result = new HashMap<>();
+        for (Map.Entry<K, Batch<K, V>> e : enqueue(keys).entrySet()) {
+            V v = join(e.getValue()).get(e.getKey());
+            if (v != null) {
+                result.put(e.getKey(), v);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * add keys to the open batch , sealing it when full . the caller dispatches every batch it opened ,
+     * waiting up to the max delay for others to join the last one
+     *
+     * @param keys keys to add
+     * @return batch of each key
+     */
+    private Map<K, Batch<K, V>> enqueue(Collection<K> keys) {
+        Map<K, Batch<K, V>> batchOf = new HashMap<>();
+        List<Batch<K, V>> led = new ArrayList<>(1);
+        lock.lock();
+        try {
+            for (K k : keys) {
+                if (open == null) {
+                    open = new Batch<>();
+                    led.add(open);
+                }
+                open.keys.add(k);
+                batchOf.put(k, open);
+                if (open.keys.size() >= maxBatchSize) {
+                    open = null;
+                    full.signalAll();
+                }
+            }
+            if (!led.isEmpty() && open == led.get(led.size() - 1)) {
+                Batch<K, V> last = open;
+                long remaining = maxDelayNanos;
+                while (open == last && remaining > 0) {
+                    remaining = full.awaitNanos(remaining);
+                }
+                if (open == last) {
+                    open = null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (led.contains(open)) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Batch<K, V> batch : led) {
+            dispatch(batch);
+        }
+        return batchOf;
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        try {
+            Map<K, V> loaded = bulkLoader.apply(Collections.unmodifiableSet(batch.keys));
+            batch.result.complete(loaded == null ? Collections.emptyMap() : loaded);
+        } catch (Throwable e) {
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private Map<K, V> join(Batch<K, V> batch) {
+        try {
+            return batch.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * keys of one bulk load and its result
+     */
+    private static final class Batch<K, V> {
+
+        private final Set<K> keys = new LinkedHashSet<>();
+
+        private final CompletableFuture<Map<K, V>> result = new CompletableFuture<>();
+
+    }
+
+}
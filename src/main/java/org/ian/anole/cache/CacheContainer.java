@@ -1,7 +1,14 @@
 package org.ian.anole.cache;
 
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.*;
 
 /**
@@ -9,7 +16,7 @@ import java.util.function.*;
  * @date 2022/10/11
  * @desc cache container
  **/
-public class CacheContainer<K, V> {
+public class CacheContainer<K, V> implements AutoCloseable {
 
     /**
      * the default expire time , unit is millisecond
@@ -21,6 +28,12 @@ public class CacheContainer<K, V> {
      */
     private static final int DEFAULT_SIZE = 10000;
 
+    /**
+     * time a refresh may take to call back before a later refresh of the key takes over its slot ,
+     * unit is millisecond
+     */
+    private static final long REFRESH_TIMEOUT = 1000 * 60;
+
     /**
      * create a cache container with cache size and expire time
      *
@@ -31,7 +44,7 @@ public class CacheContainer<K, V> {
      * @return cache container
      */
     public static <K, V> CacheContainer<K, V> of(int size, long expire) {
-        return new CacheContainer<>(size, expire);
+        return CacheContainer.<K, V>builder().size(size).expire(expire).build();
     }
 
     /**
@@ -45,7 +58,22 @@ public class CacheContainer<K, V> {
      * @return cache container
      */
     public static <K, V> CacheContainer<K, V> of(int size, long expire, Predicate<V> predicate) {
-        return new CacheContainer<>(size, expire, predicate);
+        return CacheContainer.<K, V>builder().size(size).expire(expire).predicate(predicate).build();
+    }
+
+    /**
+     * create a thread safe cache container with cache size and expire time , the lru is split into
+     * independently locked segments so that concurrent request threads rarely contend
+     *
+     * @param size             cache size
+     * @param expire           expire time
+     * @param concurrencyLevel expected concurrent thread count , used as segment count
+     * @param <K>              cache key
+     * @param <V>              cache value
+     * @return cache container
+     */
+    public static <K, V> CacheContainer<K, V> concurrent(int size, long expire, int concurrencyLevel) {
+        return CacheContainer.<K, V>builder().size(size).expire(expire).concurrencyLevel(concurrencyLevel).build();
     }
 
     /**
@@ -56,7 +84,18 @@ public class CacheContainer<K, V> {
      * @return cache container
      */
     public static <K, V> CacheContainer<K, V> of() {
-        return new CacheContainer<>(DEFAULT_SIZE, DEFAULT_EXPIRE);
+        return CacheContainer.<K, V>builder().build();
+    }
+
+    /**
+     * create a cache container builder , all options start from the defaults
+     *
+     * @param <K> cache key
+     * @param <V> cache value
+     * @return cache container builder
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
     }
 
     /**
@@ -70,37 +109,203 @@ public class CacheContainer<K, V> {
     private final long expire;
 
     /**
-     * lru cache holder
+     * cache store holder
      */
-    private final LruCache<K, CacheObject<V>> cache;
+    private final CacheStore<K, V> cache;
 
     /**
      * 缓存对象合法性验证
      */
-    private Predicate<V> predicate;
+    private final Predicate<V> predicate;
+
+    /**
+     * age after which a read triggers a background refresh , unit is millisecond , -1 means never
+     */
+    private final long refreshAfterWrite;
+
+    /**
+     * expire time of each cache value , null if all cache values expire after write by expire
+     */
+    private final Expiry<K, V> expiry;
+
+    /**
+     * time source of expire times
+     */
+    private final Ticker ticker;
+
+    /**
+     * exchange invalidated keys with other nodes , null if the container is local only
+     */
+    private final InvalidationBus<K> invalidationBus;
+
+    /**
+     * write added and removed cache values to the backing store , null if not written
+     */
+    private final CacheWriter<K, V> writer;
+
+    /**
+     * deliver removals to the removal listener , null if there is no listener
+     */
+    private final RemovalNotifier<K, V> removalNotifier;
+
+    /**
+     * expire time of absent markers , -1 if absent keys are not cached
+     */
+    private final long negativeExpire;
+
+    /**
+     * executor that runs background refreshes and async loads
+     */
+    private final Executor executor;
+
+    /**
+     * compute the weight of cache values , null if bounded by cache size
+     */
+    private final Weigher<K, V> weigher;
+
+    /**
+     * max total weight of cache values , -1 if bounded by cache size
+     */
+    private final long maxWeight;
+
+    /**
+     * expiration index that drops expired cache objects proactively , null if disabled
+     */
+    private final TimerWheel<K, V> timerWheel;
+
+    /**
+     * fallback loads in flight
+     */
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+
+    /**
+     * background refreshes in flight
+     */
+    private final ConcurrentHashMap<K, Refresh<V>> refreshes = new ConcurrentHashMap<>();
+
+    /**
+     * statistics recorder , a no-op if disabled
+     */
+    private final StatsCounter stats;
+
+    /**
+     * hot key tracker , null if disabled
+     */
+    private final HotKeyTracker<K> hotKeys;
+
+    /**
+     * snapshot that is restored lazily , null if none or drained
+     */
+    private volatile CacheSnapshot<K, V> snapshot;
+
+    /**
+     * async view , created lazily
+     */
+    private volatile AsyncCacheContainer<K, V> async;
 
     /**
      * cache container
      *
-     * @param size   cache size
-     * @param expire expire time
+     * @param builder cache container options
      */
-    private CacheContainer(int size, long expire) {
-        this(size, expire, null);
-    }
-
-    private CacheContainer(int size, long expire, Predicate<V> predicate) {
-        this.size = size;
-        this.expire = expire;
-        this.predicate = predicate;
-        cache = new LruCache<>(size);
+    private CacheContainer(Builder<K, V> builder) {
+        this.size = builder.size;
+        this.expire = builder.expire;
+        this.predicate = builder.predicate;
+        this.refreshAfterWrite = builder.refreshAfterWrite;
+        this.negativeExpire = builder.negativeExpire;
+        this.expiry = builder.expiry;
+        this.ticker = builder.ticker;
+        this.executor = builder.executor;
+        this.timerWheel = builder.proactiveExpire ? new TimerWheel<>(ticker.read(), Math.max(builder.concurrencyLevel, 1)) : null;
+        this.stats = builder.recordStats ? new StatsCounter(true, builder.recordLoadLatency) : StatsCounter.DISABLED;
+        this.hotKeys = builder.hotKeyCount > 0 ? new HotKeyTracker<>(builder.hotKeyCount, builder.hotKeySampleInterval) : null;
+        this.writer = builder.writeBehindDelay >= 0
+                ? new WriteBehindWriter<>(builder.writer, builder.writeBehindDelay, builder.writeBehindBatchSize, builder.writeFailureListener)
+                : builder.writer;
+        this.removalNotifier = builder.removalListener == null ? null : new RemovalNotifier<>(builder.removalListener, executor);
+        BiConsumer<K, CacheObject<V>> evictionListener = this::onEvict;
+        this.weigher = builder.weigher;
+        this.maxWeight = builder.offHeapCodec != null ? builder.offHeapCapacity : builder.maxWeight;
+        long capacity = maxWeight != -1 ? maxWeight : size;
+        EvictionPolicy evictionPolicy = builder.evictionPolicy;
+        ValueCodec<V> offHeapCodec = builder.offHeapCodec;
+        ValueStrength valueStrength = builder.valueStrength;
+        LongFunction<CacheStore<K, V>> storeFactory = weight -> {
+            if (offHeapCodec != null) {
+                return new OffHeapCacheStore<>(weight, offHeapCodec, listener -> evictionPolicy.createStore(weight, listener), evictionListener);
+            }
+            CacheStore<K, V> store = evictionPolicy.createStore(weight, evictionListener);
+            if (valueStrength != ValueStrength.STRONG) {
+                store = new ReferenceCacheStore<>(store, valueStrength == ValueStrength.SOFT, this::onCollected);
+            }
+            return store;
+        };
+        if (builder.readMostly) {
+            this.cache = new CopyOnWriteCacheStore<>(capacity, evictionListener);
+        } else if (builder.concurrencyLevel > 0) {
+            this.cache = new SegmentedCacheStore<>(capacity, builder.concurrencyLevel, storeFactory);
+        } else {
+            this.cache = storeFactory.apply(capacity);
+        }
+        // subscribe last , a message may arrive as soon as the bus exists
+        this.invalidationBus = builder.invalidationTransport == null ? null
+                : new InvalidationBus<>(builder.invalidationNamespace, builder.invalidationTransport, builder.invalidationKeyCodec,
+                builder.invalidationWindow, this::invalidate);
     }
 
     /**
      * 清除缓存数据
      */
     public void clear() {
+        snapshot = null;
         cache.clear();
+        if (timerWheel != null) {
+            timerWheel.clear();
+        }
+    }
+
+    /**
+     * drop expired cache objects now , it is also done in amortized batches on writes when
+     * proactive expiration is enabled , so a maintenance thread may call it periodically
+     */
+    public void cleanUp() {
+        if (timerWheel == null) {
+            return;
+        }
+        long now = ticker.read();
+        dropExpired(timerWheel.tryAdvance(now), now);
+    }
+
+    /**
+     * drop expired cache objects of the timer wheel stripe of a key , done after each write of the key
+     *
+     * @param key cache key written
+     */
+    private void cleanUp(K key) {
+        long now = ticker.read();
+        dropExpired(timerWheel.tryAdvance(key, now), now);
+    }
+
+    /**
+     * remove the cache objects of expired timer nodes , the ones whose expire time moved are scheduled again
+     *
+     * @param expired expired timer nodes , may be null
+     * @param now     current time , unit is millisecond
+     */
+    private void dropExpired(List<TimerWheel.Node<K, V>> expired, long now) {
+        if (expired == null) {
+            return;
+        }
+        for (TimerWheel.Node<K, V> node : expired) {
+            if (node.value.isExpire(now)) {
+                if (cache.remove(node.key, node.value)) {
+                    onRemoval(node.key, node.value, RemovalCause.EXPIRED);
+                }
+            } else {
+                timerWheel.schedule(node.key, node.value);
+            }
+        }
     }
 
     /**
@@ -113,7 +318,25 @@ public class CacheContainer<K, V> {
     }
 
     /**
-     * expire time
+     * max total weight of cache values
+     *
+     * @return max weight , off heap bytes for an off heap container , -1 if bounded by cache size
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * current total weight of cache values , equals cache object count if no weigher is used
+     *
+     * @return current weight
+     */
+    public long getWeight() {
+        return cache.weightedSize();
+    }
+
+    /**
+     * expire time , cache values of a container with an expiry use the time it computes instead
      *
      * @return expire time
      */
@@ -138,183 +361,1563 @@ public class CacheContainer<K, V> {
      * @param v   cache vakue
      */
     private void putCacheValue(K key, V v) {
+        CacheObject<V> cacheObject = createCacheObject(key, v);
+        if (cacheObject != null) {
+            putCacheObject(key, cacheObject);
+        }
+    }
+
+    /**
+     * real put cache value with its own expire time
+     *
+     * @param key    cache key
+     * @param v      cache vakue
+     * @param expire expire time , unit is millisecond
+     */
+    private void putCacheValue(K key, V v, long expire) {
+        CacheObject<V> cacheObject = createCacheObject(key, v, expire);
+        if (cacheObject != null) {
+            putCacheObject(key, cacheObject);
+        }
+    }
+
+    /**
+     * create the cache object of a cache value , expiring by the expiry if set
+     *
+     * @param key cache key
+     * @param v   cache value
+     * @return cache object , null if the value is null or rejected by the predicate
+     */
+    private CacheObject<V> createCacheObject(K key, V v) {
+        if (v != null && expiry != null) {
+            long expire = expiry.expireAfterWrite(key, v);
+            Expiry.checkExpire(expire);
+            return createCacheObject(key, v, expire);
+        }
+        return createCacheObject(key, v, expire);
+    }
+
+    /**
+     * create the cache object of a cache value with its own expire time
+     *
+     * @param key    cache key
+     * @param v      cache value
+     * @param expire expire time , unit is millisecond
+     * @return cache object , null if the value is null or rejected by the predicate
+     */
+    private CacheObject<V> createCacheObject(K key, V v, long expire) {
         if (v == null) {
-            return;
+            return null;
         }
         if (predicate != null && !predicate.test(v)) {
+            return null;
+        }
+        CacheSnapshot<K, V> source = snapshot;
+        if (source != null) {
+            source.discard(key);
+        }
+        CacheEntry<V> cacheObject = cache.create(key, v, expire, ticker.read());
+        if (weigher != null) {
+            int weight = weigher.weigh(key, v);
+            if (weight < 0) {
+                throw new IllegalArgumentException("cache value weight must not be negative : " + weight);
+            }
+            cacheObject.weight = weight;
+        }
+        return cacheObject;
+    }
+
+    /**
+     * cache the absence of a value for the key , so repeated misses are answered without loading
+     * until the negative expire time passes , nothing is done if negative caching is disabled
+     *
+     * @param key cache key
+     */
+    private void putAbsent(K key) {
+        if (negativeExpire < 0) {
             return;
         }
-        cache.put(key, new CacheObject<>(v, expire));
+        CacheSnapshot<K, V> source = snapshot;
+        if (source != null) {
+            source.discard(key);
+        }
+        putCacheObject(key, CacheObject.absent(negativeExpire, ticker.read()));
     }
 
     /**
-     * get cache value by cache key , and it will use fallback to create a new cache value if necessary
+     * cache the absence of values for the loaded keys the bulk fallback gave nothing for
      *
-     * @param key      cache key
-     * @param fallback new cache object generate
-     * @return cache object
+     * @param keys   loaded keys
+     * @param loaded bulk fallback result , may be null
      */
-    public V getCacheValue(K key, Function<K, V> fallback) {
-        CacheObject<V> cacheObject = cache.get(key);
-        if (cacheObject != null) {
-            V t = cacheObject.getValue();
-            if (cacheObject.isExpire()) {
-                if (fallback != null) {
-                    V fresh = fallback.apply(key);
-                    if (fresh != null) {
-                        putCacheValue(key, fresh);
-                    } else {
-                        cache.remove(key);
-                    }
-                } else {
-                    cache.remove(key);
-                }
-            }
-            return t;
-        } else {
-            if (fallback != null) {
-                V fresh = fallback.apply(key);
-                if (fresh != null) {
-                    putCacheValue(key, fresh);
-                    return fresh;
-                }
+    private void putAbsent(Collection<K> keys, Map<K, V> loaded) {
+        if (negativeExpire < 0) {
+            return;
+        }
+        for (K k : keys) {
+            if (loaded == null || loaded.get(k) == null) {
+                putAbsent(k);
             }
         }
-        return null;
     }
 
     /**
-     * refresh cache value by async way if expired
+     * put cache object into the store and schedule its expiration
      *
-     * @param key           cache key
-     * @param refreshAction async refresh
-     * @param fallback      create cache is miss
-     * @return cache value
+     * @param key         cache key
+     * @param cacheObject cache object
      */
-    public V getCacheValueAsync(K key, BiConsumer<K, BiConsumer<K, V>> refreshAction, Function<K, V> fallback) {
-        CacheObject<V> cacheObject = cache.get(key);
-        if (cacheObject != null) {
-            V t = cacheObject.getValue();
-            if (cacheObject.isExpire()) {
-                if (fallback != null) {
-                    // only expire
-                    refreshAction.accept(key, (k, v) -> {
-                        putCacheValue(key, v);
-                    });
-                } else {
-                    cache.remove(key);
-                }
+    private void putCacheObject(K key, CacheObject<V> cacheObject) {
+        boolean evictions = CacheEvents.beginEvictions();
+        CacheObject<V> previous;
+        try {
+            previous = cache.put(key, cacheObject);
+        } finally {
+            CacheEvents.endEvictions(evictions);
+        }
+        if (previous != null) {
+            onRemoval(key, previous, RemovalCause.REPLACED);
+        }
+        if (timerWheel != null) {
+            timerWheel.deschedule(key, previous);
+            timerWheel.schedule(key, cacheObject);
+            cleanUp(key);
+        }
+    }
+
+    /**
+     * put cache objects into the store as one write and schedule their expiration
+     *
+     * @param cacheObjects cache objects by cache key
+     */
+    private void putCacheObjects(Map<K, CacheObject<V>> cacheObjects) {
+        if (cacheObjects.isEmpty()) {
+            return;
+        }
+        boolean evictions = CacheEvents.beginEvictions();
+        Map<K, CacheObject<V>> previous;
+        try {
+            previous = cache.putAll(cacheObjects);
+        } finally {
+            CacheEvents.endEvictions(evictions);
+        }
+        for (Map.Entry<K, CacheObject<V>> entry : cacheObjects.entrySet()) {
+            CacheObject<V> replaced = previous.get(entry.getKey());
+            if (replaced != null) {
+                onRemoval(entry.getKey(), replaced, RemovalCause.REPLACED);
             }
-            return t;
-        } else {
-            if (fallback != null) {
-                V fresh = fallback.apply(key);
-                if (fresh != null) {
-                    putCacheValue(key, fresh);
-                    return fresh;
-                }
+            if (timerWheel != null) {
+                timerWheel.deschedule(entry.getKey(), replaced);
+                timerWheel.schedule(entry.getKey(), entry.getValue());
             }
         }
-        return null;
+        if (timerWheel != null) {
+            cleanUp();
+        }
     }
 
     /**
-     * add cache object
+     * replace all cache objects of the store and schedule their expiration
      *
-     * @param cacheValueList cache value list
-     * @param keyFunction    cache value key generate
+     * @param cacheObjects cache objects by cache key
      */
-    public void addCacheValue(Collection<V> cacheValueList, Function<V, K> keyFunction) {
-        for (V t : cacheValueList) {
-            putCacheValue(keyFunction.apply(t), t);
+    private void replaceCacheObjects(Map<K, CacheObject<V>> cacheObjects) {
+        boolean evictions = CacheEvents.beginEvictions();
+        Map<K, CacheObject<V>> previous;
+        try {
+            previous = cache.replaceAll(cacheObjects);
+        } finally {
+            CacheEvents.endEvictions(evictions);
+        }
+        for (Map.Entry<K, CacheObject<V>> entry : previous.entrySet()) {
+            RemovalCause cause = cacheObjects.containsKey(entry.getKey()) ? RemovalCause.REPLACED : RemovalCause.EXPLICIT;
+            onRemoval(entry.getKey(), entry.getValue(), cause);
+            if (timerWheel != null) {
+                timerWheel.deschedule(entry.getKey(), entry.getValue());
+            }
+        }
+        if (timerWheel != null) {
+            for (Map.Entry<K, CacheObject<V>> entry : cacheObjects.entrySet()) {
+                timerWheel.schedule(entry.getKey(), entry.getValue());
+            }
+            cleanUp();
         }
     }
 
     /**
-     * add cache value
+     * remove expired cache object only if the key is still mapped to it
      *
-     * @param key        cache key
-     * @param cacheValue cache value
+     * @param key         cache key
+     * @param cacheObject expected cache object
      */
-    public void addCacheValue(K key, V cacheValue) {
-        if (cacheValue == null) {
-            return;
+    private void removeExpired(K key, CacheObject<V> cacheObject) {
+        if (cache.remove(key, cacheObject)) {
+            onRemoval(key, cacheObject, RemovalCause.EXPIRED);
+            if (timerWheel != null) {
+                timerWheel.deschedule(key, cacheObject);
+            }
         }
-        putCacheValue(key, cacheValue);
     }
 
     /**
-     * add cache map
+     * cache object evicted by size , called by the store
      *
-     * @param cacheValueMap cache value map that need to be cached
+     * @param key         cache key
+     * @param cacheObject evicted cache object
      */
-    public void addCacheValue(Map<K, V> cacheValueMap) {
-        if (cacheValueMap == null) {
-            return;
+    private void onEvict(K key, CacheObject<V> cacheObject) {
+        CacheEvents.evicted(cacheObject.weight());
+        onRemoval(key, cacheObject, RemovalCause.SIZE);
+        if (timerWheel != null) {
+            timerWheel.deschedule(key, cacheObject);
         }
-        for (K key : cacheValueMap.keySet()) {
-            putCacheValue(key, cacheValueMap.get(key));
+    }
+
+    /**
+     * cache object purged because its value was collected , called by the store
+     *
+     * @param key         cache key
+     * @param cacheObject purged cache object
+     */
+    private void onCollected(K key, CacheObject<V> cacheObject) {
+        onRemoval(key, cacheObject, RemovalCause.COLLECTED);
+        if (timerWheel != null) {
+            timerWheel.deschedule(key, cacheObject);
         }
     }
 
     /**
-     * remove cache value
+     * remove a cache object whose value is gone before the store purged it , only if the key is
+     * still mapped to it
      *
-     * @param key cache key
+     * @param key         cache key
+     * @param cacheObject cache object without value
      */
-    public void removeCacheValue(K key) {
-        cache.remove(key);
+    private void removeCollected(K key, CacheObject<V> cacheObject) {
+        if (cache.remove(key, cacheObject)) {
+            onCollected(key, cacheObject);
+        }
     }
 
-    public void asyncRefreshCacheValue(K key, Function<K, V> refreshFunction) {
-        V v = refreshFunction.apply(key);
-        addCacheValue(key, v);
+    /**
+     * record a removal and queue its notification , the listener runs on the executor . the cache
+     * object is released by the store afterwards , so the value is read before it is freed
+     *
+     * @param key         cache key
+     * @param cacheObject removed cache object
+     * @param cause       removal cause
+     */
+    private void onRemoval(K key, CacheObject<V> cacheObject, RemovalCause cause) {
+        stats.recordRemoval(cause);
+        if (removalNotifier != null && !cacheObject.isAbsent()) {
+            removalNotifier.notify(key, cacheObject.getValue(), cause);
+        }
+        cache.release(key, cacheObject);
     }
 
     /**
-     * get cache value map by key list
+     * get cache value by cache key , and it will use fallback to create a new cache value if necessary
      *
-     * @param keyList     cache key list
-     * @param keyFunction cache value generate function
-     * @param fallback    cache value create when miss if necessary
-     * @return cache value map
+     * @param key      cache key
+     * @param fallback new cache object generate
+     * @return cache object
      */
-    public Map<K, V> getCacheValueMap(List<K> keyList, Function<V, K> keyFunction, Function<List<K>, Map<K, V>> fallback) {
-        return getCacheValueMap(new HashSet<>(keyList), keyFunction, ks -> {
-            if (fallback == null) {
-                return null;
-            }
-            return fallback.apply(new ArrayList<>(ks));
-        });
+    public V getCacheValue(K key, Function<K, V> fallback) {
+        if (hotKeys != null) {
+            hotKeys.recordRead(key);
+        }
+        return getCacheValue(key, cache.get(key), fallback);
     }
 
     /**
-     * get cache value map by key set
+     * get cache value of a looked up cache object
      *
-     * @param keySet      cache key set
-     * @param keyFunction cache value generate function
-     * @param fallback    cache value create when miss if necessary
-     * @return cache value map
+     * @param key         cache key
+     * @param cacheObject cache object of the key , null if missed
+     * @param fallback    new cache object generate
+     * @return cache object
      */
-    public Map<K, V> getCacheValueMap(Set<K> keySet, Function<V, K> keyFunction, Function<Set<K>, Map<K, V>> fallback) {
-        Map<K, V> cacheValueMap = new HashMap<>();
-        Set<K> missKeyList = new HashSet<>();
-        for (K k : keySet) {
-            V t = getCacheValue(k, null);
-            if (t != null) {
-                cacheValueMap.put(k, t);
-            } else {
-                missKeyList.add(k);
+    private V getCacheValue(K key, CacheObject<V> cacheObject, Function<K, V> fallback) {
+        if (cacheObject != null) {
+            if (cacheObject.isAbsent()) {
+                return getAbsent(key, cacheObject, fallback);
             }
-        }
-        if (missKeyList.size() > 0 && fallback != null) {
-            Map<K, V> fallbackValue = fallback.apply(missKeyList);
-            if (fallbackValue != null) {
-                addCacheValue(fallbackValue.values(), keyFunction);
-                cacheValueMap.putAll(fallbackValue);
+            V t = cacheObject.getValue();
+            if (t == null) {
+                // the value was collected before its reference was purged , or left the store while it was read
+                removeCollected(key, cacheObject);
+                stats.recordMisses(1);
+                return fallback == null ? restore(key) : load(key, null, fallback);
             }
+            if (!cacheObject.isExpire(ticker.read())) {
+                stats.recordHits(1);
+                afterRead(key, cacheObject, t);
+            } else {
+                stats.recordMisses(1);
+                recordExpiredRead(key, cacheObject);
+                if (fallback != null) {
+                    load(key, cacheObject, fallback);
+                } else {
+                    removeExpired(key, cacheObject);
+                }
+            }
+            return t;
+        } else {
+            stats.recordMisses(1);
+            if (fallback != null) {
+                return load(key, null, fallback);
+            }
+            return restore(key);
+        }
+    }
+
+    /**
+     * move the expire time of a cache value that is read by the expiry , the timer wheel finds a
+     * later expire time when the old one passes and schedules it again
+     *
+     * @param key         cache key
+     * @param cacheObject cache object that is read
+     * @param v           cache value
+     */
+    private void afterRead(K key, CacheObject<V> cacheObject, V v) {
+        if (expiry == null || v == null) {
+            return;
+        }
+        long now = ticker.read();
+        long remaining = cacheObject.remaining(now);
+        long expire = expiry.expireAfterRead(key, v, remaining);
+        if (expire != remaining) {
+            Expiry.checkExpire(expire);
+            cacheObject.expireAfter(expire, now);
+        }
+    }
+
+    /**
+     * answer a read of an absent marker , an expired marker is loaded again by fallback
+     *
+     * @param key      cache key
+     * @param absent   absent marker of the key
+     * @param fallback new cache object generate
+     * @return fresh cache value , null while the marker is alive
+     */
+    private V getAbsent(K key, CacheObject<V> absent, Function<K, V> fallback) {
+        if (!absent.isExpire(ticker.read())) {
+            stats.recordHits(1);
+            return null;
+        }
+        stats.recordMisses(1);
+        recordExpiredRead(key, absent);
+        if (fallback != null) {
+            return load(key, absent, fallback);
+        }
+        removeExpired(key, absent);
+        return null;
+    }
+
+    /**
+     * record a read that found an expired cache object
+     *
+     * @param key         cache key
+     * @param cacheObject expired cache object
+     */
+    private void recordExpiredRead(K key, CacheObject<V> cacheObject) {
+        stats.recordExpiredRead();
+        if (hotKeys != null) {
+            hotKeys.recordExpiredRead(key);
+        }
+        if (CacheEvents.ENABLED) {
+            CacheEvents.expiredRead(key, ticker.read() - cacheObject.getExpireTime());
+        }
+    }
+
+    /**
+     * load cache value by fallback , concurrent loads of the same key share one fallback call
+     *
+     * @param key      cache key
+     * @param expired  expired cache object that is replaced , null if missed
+     * @param fallback new cache object generate
+     * @return fresh cache value
+     */
+    private V load(K key, CacheObject<V> expired, Function<K, V> fallback) {
+        return loads.execute(key, k -> {
+            // another caller may have finished the load just before this one started
+            CacheObject<V> current = cache.get(k);
+            if (current != null && current != expired && !current.isExpire(ticker.read())) {
+                V v = current.getValue();
+                if (v != null || current.isAbsent()) {
+                    return v;
+                }
+                removeCollected(k, current);
+            }
+            if (expired == null) {
+                V restored = restore(k);
+                if (restored != null) {
+                    return restored;
+                }
+            }
+            if (hotKeys != null) {
+                hotKeys.recordLoad(k);
+            }
+            V fresh = timedLoad(k, fallback);
+            if (fresh != null) {
+                putCacheValue(k, fresh);
+            } else if (negativeExpire >= 0) {
+                putAbsent(k);
+            } else if (expired != null) {
+                removeExpired(k, expired);
+            }
+            return fresh;
+        });
+    }
+
+    /**
+     * call fallback and record the load time
+     *
+     * @param key      cache key
+     * @param fallback cache value create
+     * @return created cache value
+     */
+    private <T, R> R timedLoad(T key, Function<T, R> fallback) {
+        long startTime = stats.startTime();
+        Object event = CacheEvents.beginLoad();
+        R fresh;
+        try {
+            fresh = fallback.apply(key);
+        } catch (Throwable e) {
+            stats.recordLoad(startTime, false);
+            CacheEvents.endLoad(event, key, null, e);
+            throw e;
+        }
+        stats.recordLoad(startTime, fresh != null);
+        CacheEvents.endLoad(event, key, fresh, null);
+        return fresh;
+    }
+
+    /**
+     * refresh cache value by async way if expired , the stale value is returned at once and
+     * the refresh action runs on the executor , at most one refresh is in flight per key
+     *
+     * @param key           cache key
+     * @param refreshAction async refresh , it hands the fresh value to the given consumer
+     * @param fallback      create cache is miss
+     * @return cache value
+     */
+    public V getCacheValueAsync(K key, BiConsumer<K, BiConsumer<K, V>> refreshAction, Function<K, V> fallback) {
+        if (hotKeys != null) {
+            hotKeys.recordRead(key);
+        }
+        CacheObject<V> cacheObject = cache.get(key);
+        if (cacheObject != null) {
+            if (cacheObject.isAbsent()) {
+                // a miss is loaded on the caller thread , so is an expired marker of a miss
+                return getAbsent(key, cacheObject, fallback);
+            }
+            V t = cacheObject.getValue();
+            if (t == null) {
+                // the value was collected before its reference was purged , or left the store while it was read
+                removeCollected(key, cacheObject);
+                stats.recordMisses(1);
+                return fallback == null ? null : load(key, null, fallback);
+            }
+            if (cacheObject.isExpire(ticker.read())) {
+                stats.recordMisses(1);
+                recordExpiredRead(key, cacheObject);
+                if (fallback != null) {
+                    // only expire
+                    refresh(key, cacheObject, refreshAction);
+                } else {
+                    removeExpired(key, cacheObject);
+                }
+            } else {
+                stats.recordHits(1);
+                afterRead(key, cacheObject, t);
+                if (fallback != null && needRefresh(cacheObject)) {
+                    refresh(key, cacheObject, refreshAction);
+                }
+            }
+            return t;
+        } else {
+            stats.recordMisses(1);
+            if (fallback != null) {
+                return load(key, null, fallback);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * get cache value by cache key , a stale or expired value is returned at once and refreshed
+     * by the fallback on the executor , a miss is loaded by the fallback on the caller thread
+     *
+     * @param key      cache key
+     * @param fallback create or refresh cache value
+     * @return cache value
+     */
+    public V getCacheValueAsync(K key, Function<K, V> fallback) {
+        return getCacheValueAsync(key, fallback == null ? null : (k, consumer) -> consumer.accept(k, fallback.apply(k)), fallback);
+    }
+
+    /**
+     * predicate cache object is old enough to be refreshed ahead of expiration
+     *
+     * @param cacheObject cache object
+     * @return true if a background refresh should start
+     */
+    private boolean needRefresh(CacheObject<V> cacheObject) {
+        return refreshAfterWrite >= 0 && ticker.read() - cacheObject.getCreateTime() > refreshAfterWrite;
+    }
+
+    /**
+     * start a background refresh by refresh action unless one is in flight for the key
+     *
+     * @param key           cache key
+     * @param stale         cache object that triggered the refresh
+     * @param refreshAction async refresh
+     */
+    private void refresh(K key, CacheObject<V> stale, BiConsumer<K, BiConsumer<K, V>> refreshAction) {
+        if (key == null || refreshAction == null) {
+            return;
+        }
+        Refresh<V> future = new Refresh<>(ticker.read());
+        if (claimRefresh(key, future) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                if (hotKeys != null) {
+                    hotKeys.recordLoad(key);
+                }
+                long startTime = stats.startTime();
+                Object event = CacheEvents.beginLoad();
+                try {
+                    refreshAction.accept(key, (k, v) -> {
+                        stats.recordLoad(startTime, v != null);
+                        CacheEvents.endLoad(event, k, v, null);
+                        if (v != null) {
+                            putCacheValue(k, v);
+                        } else if (negativeExpire >= 0) {
+                            putAbsent(k);
+                        } else if (stale.isExpire(ticker.read())) {
+                            removeExpired(k, stale);
+                        }
+                        future.complete(v);
+                    });
+                } catch (Throwable e) {
+                    stats.recordLoad(startTime, false);
+                    CacheEvents.endLoad(event, key, null, e);
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * claim the refresh slot of a key , the slot is released once the refresh completes . a refresh
+     * that has not called back within the refresh timeout is given up and its slot taken over , so a
+     * lost callback never blocks later refreshes of the key
+     *
+     * @param key    cache key
+     * @param future refresh to claim the slot for
+     * @return refresh in flight that keeps the slot , null if the slot is claimed
+     */
+    private Refresh<V> claimRefresh(K key, Refresh<V> future) {
+        Refresh<V> existing;
+        while ((existing = refreshes.putIfAbsent(key, future)) != null) {
+            if (future.startTime - existing.startTime < REFRESH_TIMEOUT && !existing.isDone()) {
+                return existing;
+            }
+            if (refreshes.replace(key, existing, future)) {
+                existing.complete(null);
+                break;
+            }
+        }
+        future.whenComplete((v, e) -> refreshes.remove(key, future));
+        return null;
+    }
+
+    /**
+     * add cache object
+     *
+     * @param cacheValueList cache value list
+     * @param keyFunction    cache value key generate
+     */
+    public void addCacheValue(Collection<V> cacheValueList, Function<V, K> keyFunction) {
+        if (writer != null) {
+            // written as one batch
+            Map<K, V> cacheValueMap = new LinkedHashMap<>();
+            for (V t : cacheValueList) {
+                cacheValueMap.put(keyFunction.apply(t), t);
+            }
+            addCacheValue(cacheValueMap);
+            return;
+        }
+        for (V t : cacheValueList) {
+            K key = keyFunction.apply(t);
+            putCacheValue(key, t);
+            publish(key);
+        }
+    }
+
+    /**
+     * add cache value
+     *
+     * @param key        cache key
+     * @param cacheValue cache value
+     */
+    public void addCacheValue(K key, V cacheValue) {
+        if (cacheValue == null) {
+            return;
+        }
+        if (writer != null) {
+            writer.write(key, cacheValue);
+        }
+        putCacheValue(key, cacheValue);
+        publish(key);
+    }
+
+    /**
+     * add cache map
+     *
+     * @param cacheValueMap cache value map that need to be cached
+     */
+    public void addCacheValue(Map<K, V> cacheValueMap) {
+        if (cacheValueMap == null) {
+            return;
+        }
+        if (writer != null) {
+            Map<K, V> writes = new LinkedHashMap<>();
+            for (Map.Entry<K, V> entry : cacheValueMap.entrySet()) {
+                if (entry.getValue() != null) {
+                    writes.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!writes.isEmpty()) {
+                writer.writeAll(writes);
+            }
+        }
+        putCacheValues(cacheValueMap);
+        for (Map.Entry<K, V> entry : cacheValueMap.entrySet()) {
+            if (entry.getValue() != null) {
+                publish(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * replace all cache values by the given ones , keys that are not in the map are removed . a read
+     * mostly container publishes the new values as one snapshot , so a reader sees either all old or
+     * all new values . the map is taken as the state of the backing store , so it is neither written by
+     * the writer nor invalidated on other nodes
+     *
+     * @param cacheValueMap cache value map that replaces the cached values
+     */
+    public void replaceCacheValue(Map<K, V> cacheValueMap) {
+        Map<K, CacheObject<V>> cacheObjects = new LinkedHashMap<>();
+        if (cacheValueMap != null) {
+            for (Map.Entry<K, V> entry : cacheValueMap.entrySet()) {
+                CacheObject<V> cacheObject = createCacheObject(entry.getKey(), entry.getValue());
+                if (cacheObject != null) {
+                    cacheObjects.put(entry.getKey(), cacheObject);
+                }
+            }
+        }
+        replaceCacheObjects(cacheObjects);
+    }
+
+    /**
+     * put cache values into the store as one write , they are not invalidated on other nodes
+     *
+     * @param cacheValueMap loaded cache value map , may be null
+     */
+    private void putCacheValues(Map<K, V> cacheValueMap) {
+        if (cacheValueMap == null) {
+            return;
+        }
+        Map<K, CacheObject<V>> cacheObjects = new LinkedHashMap<>();
+        for (Map.Entry<K, V> entry : cacheValueMap.entrySet()) {
+            CacheObject<V> cacheObject = createCacheObject(entry.getKey(), entry.getValue());
+            if (cacheObject != null) {
+                cacheObjects.put(entry.getKey(), cacheObject);
+            }
+        }
+        putCacheObjects(cacheObjects);
+    }
+
+    /**
+     * remove cache value
+     *
+     * @param key cache key
+     */
+    public void removeCacheValue(K key) {
+        if (writer != null) {
+            writer.delete(key);
+        }
+        invalidate(key);
+        publish(key);
+    }
+
+    /**
+     * write the writes queued by a write behind writer now and wait for them , nothing is done
+     * for a write through writer
+     */
+    public void flushWrites() {
+        if (writer instanceof WriteBehindWriter) {
+            ((WriteBehindWriter<K, V>) writer).flushNow();
+        }
+    }
+
+    /**
+     * write the writes queued by a write behind writer and stop its thread , later writes to the
+     * container fail . publish the pending invalidations and leave the invalidation bus , its
+     * transport is not closed . a container with a write behind writer that is dropped without close
+     * keeps its writer until the jvm exits , when the queue is flushed by a shutdown hook
+     */
+    @Override
+    public void close() {
+        if (writer instanceof WriteBehindWriter) {
+            ((WriteBehindWriter<K, V>) writer).close();
+        }
+        if (invalidationBus != null) {
+            invalidationBus.close();
+        }
+    }
+
+    /**
+     * invalidate a cache key on the other nodes , if an invalidation bus is set
+     *
+     * @param key cache key
+     */
+    private void publish(K key) {
+        if (invalidationBus != null) {
+            invalidationBus.publish(key);
+        }
+    }
+
+    /**
+     * drop the cache value of a key locally
+     *
+     * @param key cache key
+     */
+    private void invalidate(K key) {
+        CacheSnapshot<K, V> source = snapshot;
+        if (source != null) {
+            source.discard(key);
+        }
+        CacheObject<V> previous = cache.remove(key);
+        if (previous != null) {
+            onRemoval(key, previous, RemovalCause.EXPLICIT);
+        }
+        if (timerWheel != null) {
+            timerWheel.deschedule(key, previous);
+        }
+    }
+
+    /**
+     * refresh cache value on the executor , joins the refresh already in flight for the key if any
+     *
+     * @param key             cache key
+     * @param refreshFunction create fresh cache value
+     */
+    public void asyncRefreshCacheValue(K key, Function<K, V> refreshFunction) {
+        refreshCacheValue(key, refreshFunction);
+    }
+
+    /**
+     * refresh cache value on the executor , joins the refresh already in flight for the key if any
+     *
+     * @param key             cache key
+     * @param refreshFunction create fresh cache value
+     * @return future of the fresh cache value
+     */
+    public CompletableFuture<V> refreshCacheValue(K key, Function<K, V> refreshFunction) {
+        if (key == null) {
+            return CompletableFuture.supplyAsync(() -> refreshFunction.apply(null), executor);
+        }
+        Refresh<V> future = new Refresh<>(ticker.read());
+        Refresh<V> existing = claimRefresh(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (hotKeys != null) {
+                        hotKeys.recordLoad(key);
+                    }
+                    V v = timedLoad(key, refreshFunction);
+                    putCacheValue(key, v);
+                    future.complete(v);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * snapshot of the statistics , recording must be enabled by the builder
+     *
+     * @return cache stats , empty if recording is disabled
+     */
+    public CacheStats stats() {
+        if (!stats.isEnabled()) {
+            return CacheStats.empty();
+        }
+        return stats.snapshot();
+    }
+
+    /**
+     * snapshot of the hottest keys by reads , loads and expired reads , tracking must be enabled by the builder
+     *
+     * @return hot key report , empty if tracking is disabled
+     */
+    public HotKeyReport<K> hotKeys() {
+        if (hotKeys == null) {
+            return HotKeyReport.empty();
+        }
+        return hotKeys.report();
+    }
+
+    /**
+     * write all live cache values to a snapshot file , so a restarted process can restore them
+     * instead of starting cold
+     *
+     * @param path       snapshot file , replaced atomically if it exists
+     * @param keyCodec   cache key codec
+     * @param valueCodec cache value codec
+     * @return cache value count written
+     * @throws IOException if the file can not be written
+     */
+    public int saveSnapshot(Path path, ValueCodec<K> keyCodec, ValueCodec<V> valueCodec) throws IOException {
+        List<K> keys = new ArrayList<>();
+        List<CacheObject<V>> cacheObjects = new ArrayList<>();
+        // only collect under the store locks , encoding and io happen outside
+        cache.forEach((k, cacheObject) -> {
+            if (cacheObject.isAbsent()) {
+                return;
+            }
+            keys.add(k);
+            cacheObjects.add(cacheObject);
+        });
+        return CacheSnapshot.write(path, keys, cacheObjects, keyCodec, valueCodec, ticker.read(), System.currentTimeMillis());
+    }
+
+    /**
+     * restore cache values from a snapshot file lazily , the file is memory mapped and only keys are
+     * read now , each value is decoded and cached on the first miss of its key with the expire
+     * time it had left when the snapshot was saved
+     *
+     * @param path       snapshot file
+     * @param keyCodec   cache key codec
+     * @param valueCodec cache value codec
+     * @throws IOException if the file can not be read or is not a snapshot
+     */
+    public void restoreSnapshot(Path path, ValueCodec<K> keyCodec, ValueCodec<V> valueCodec) throws IOException {
+        snapshot = CacheSnapshot.open(path, keyCodec, valueCodec, System.currentTimeMillis());
+    }
+
+    /**
+     * move the snapshot value of a missed key into the cache
+     *
+     * @param key cache key
+     * @return restored cache value , null if not in the snapshot
+     */
+    private V restore(K key) {
+        CacheSnapshot<K, V> source = snapshot;
+        if (source == null) {
+            return null;
+        }
+        CacheSnapshot.Restored<V> restored = source.take(key, System.currentTimeMillis());
+        if (source.isEmpty()) {
+            snapshot = null;
+        }
+        if (restored == null) {
+            return null;
+        }
+        putCacheValue(key, restored.value, restored.remaining);
+        return restored.value;
+    }
+
+    /**
+     * get the async view of this container , its loads run on the executor and never block the caller
+     *
+     * @return async cache container
+     */
+    public AsyncCacheContainer<K, V> async() {
+        AsyncCacheContainer<K, V> view = async;
+        if (view == null) {
+            view = new AsyncCacheContainer<>(this);
+            async = view;
+        }
+        return view;
+    }
+
+    /**
+     * executor that runs background refreshes and async loads
+     *
+     * @return executor
+     */
+    Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * get cache value without loading , an aged value starts a background refresh by fallback
+     *
+     * @param key      cache key
+     * @param fallback refresh cache value , null for no refresh
+     * @return cache value , null if absent or expired
+     */
+    V getIfPresent(K key, Function<K, V> fallback) {
+        if (hotKeys != null) {
+            hotKeys.recordRead(key);
+        }
+        CacheObject<V> cacheObject = cache.get(key);
+        if (cacheObject == null) {
+            stats.recordMisses(1);
+            return restore(key);
+        }
+        if (cacheObject.isExpire(ticker.read())) {
+            stats.recordMisses(1);
+            recordExpiredRead(key, cacheObject);
+            return null;
+        }
+        if (cacheObject.isAbsent()) {
+            stats.recordHits(1);
+            return null;
+        }
+        V v = cacheObject.getValue();
+        if (v == null) {
+            removeCollected(key, cacheObject);
+            stats.recordMisses(1);
+            return restore(key);
+        }
+        stats.recordHits(1);
+        afterRead(key, cacheObject, v);
+        if (fallback != null && needRefresh(cacheObject)) {
+            refresh(key, cacheObject, (k, consumer) -> consumer.accept(k, fallback.apply(k)));
+        }
+        return v;
+    }
+
+    /**
+     * load cache value for a read that already recorded its miss by get if present , so nothing is
+     * recorded again , a value cached meanwhile is returned as it is
+     *
+     * @param key      cache key
+     * @param fallback new cache object generate
+     * @return cache value
+     */
+    V loadMissed(K key, Function<K, V> fallback) {
+        CacheObject<V> cacheObject = cache.get(key);
+        if (cacheObject != null && !cacheObject.isExpire(ticker.read())) {
+            V v = cacheObject.getValue();
+            if (v != null || cacheObject.isAbsent()) {
+                return v;
+            }
+        }
+        return load(key, cacheObject, fallback);
+    }
+
+    /**
+     * predicate the key is cached as absent by a live absent marker
+     *
+     * @param key cache key
+     * @return if true the key is known to have no value
+     */
+    boolean isAbsent(K key) {
+        if (negativeExpire < 0) {
+            return false;
+        }
+        CacheObject<V> cacheObject = cache.get(key);
+        return cacheObject != null && cacheObject.isAbsent() && !cacheObject.isExpire(ticker.read());
+    }
+
+    /**
+     * load missed keys by bulk fallback and cache the results by their map key
+     *
+     * @param keySet   missed keys
+     * @param fallback bulk cache value create
+     * @return loaded cache value map
+     */
+    Map<K, V> loadAll(Set<K> keySet, Function<Set<K>, Map<K, V>> fallback) {
+        return loads.executeAll(keySet, HashSet::new, ks -> {
+            if (hotKeys != null) {
+                hotKeys.recordLoads(ks);
+            }
+            Map<K, V> fallbackValue = timedLoad(ks, fallback);
+            putCacheValues(fallbackValue);
+            putAbsent(ks, fallbackValue);
+            return fallbackValue;
+        });
+    }
+
+    /**
+     * get cache value map by key list
+     *
+     * @param keyList     cache key list
+     * @param keyFunction cache value generate function
+     * @param fallback    cache value create when miss if necessary
+     * @return cache value map
+     */
+    public Map<K, V> getCacheValueMap(List<K> keyList, Function<V, K> keyFunction, Function<List<K>, Map<K, V>> fallback) {
+        return getCacheValueMap(keyList, keyFunction, ArrayList::new, fallback);
+    }
+
+    /**
+     * get cache value map by key set
+     *
+     * @param keySet      cache key set
+     * @param keyFunction cache value generate function
+     * @param fallback    cache value create when miss if necessary
+     * @return cache value map
+     */
+    public Map<K, V> getCacheValueMap(Set<K> keySet, Function<V, K> keyFunction, Function<Set<K>, Map<K, V>> fallback) {
+        return getCacheValueMap(keySet, keyFunction, HashSet::new, fallback);
+    }
+
+    /**
+     * get cache value map , the missed keys are collected straight into the collection type the fallback takes
+     *
+     * @param keys        cache keys , duplicate keys are looked up once
+     * @param keyFunction cache value generate function
+     * @param missFactory create the missed key collection
+     * @param fallback    cache value create when miss if necessary
+     * @param <C>         key collection type of the fallback
+     * @return cache value map
+     */
+    private <C extends Collection<K>> Map<K, V> getCacheValueMap(Collection<K> keys, Function<V, K> keyFunction,
+                                                               Supplier<C> missFactory, Function<C, Map<K, V>> fallback) {
+        Map<K, V> cacheValueMap = new HashMap<>();
+        List<K> missKeys = new ArrayList<>();
+        for (K k : keys) {
+            if (cacheValueMap.containsKey(k)) {
+                continue;
+            }
+            if (hotKeys != null) {
+                hotKeys.recordRead(k);
+            }
+            CacheObject<V> cacheObject = cache.get(k);
+            if (cacheObject != null && cacheObject.isAbsent() && !cacheObject.isExpire(ticker.read())) {
+                stats.recordHits(1);
+                continue;
+            }
+            V t = getCacheValue(k, cacheObject, null);
+            if (t != null) {
+                cacheValueMap.put(k, t);
+            } else {
+                missKeys.add(k);
+            }
+        }
+        if (missKeys.size() > 0 && fallback != null) {
+            cacheValueMap.putAll(loads.executeAll(missKeys, missFactory, ks -> {
+                if (hotKeys != null) {
+                    hotKeys.recordLoads(ks);
+                }
+                Map<K, V> fallbackValue = timedLoad(ks, fallback);
+                if (fallbackValue != null) {
+                    Map<K, V> loaded = new LinkedHashMap<>();
+                    for (V v : fallbackValue.values()) {
+                        loaded.put(keyFunction.apply(v), v);
+                    }
+                    putCacheValues(loaded);
+                }
+                putAbsent(ks, fallbackValue);
+                return fallbackValue;
+            }));
         }
         return cacheValueMap;
     }
 
+    /**
+     * cache container builder
+     *
+     * @param <K> cache key
+     * @param <V> cache value
+     */
+    public static class Builder<K, V> {
+
+        private int size = DEFAULT_SIZE;
+
+        private long expire = DEFAULT_EXPIRE;
+
+        private Predicate<V> predicate;
+
+        private int concurrencyLevel;
+
+        private long refreshAfterWrite = -1;
+
+        private long negativeExpire = -1;
+
+        private Expiry<K, V> expiry;
+
+        private Ticker ticker = Ticker.system();
+
+        private String invalidationNamespace;
+
+        private InvalidationTransport invalidationTransport;
+
+        private ValueCodec<K> invalidationKeyCodec;
+
+        private long invalidationWindow = 1;
+
+        private CacheWriter<K, V> writer;
+
+        private long writeBehindDelay = -1;
+
+        private int writeBehindBatchSize;
+
+        private WriteFailureListener<K, V> writeFailureListener;
+
+        private RemovalListener<K, V> removalListener;
+
+        private ValueStrength valueStrength = ValueStrength.STRONG;
+
+        private Executor executor = ForkJoinPool.commonPool();
+
+        private boolean proactiveExpire;
+
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+        private Weigher<K, V> weigher;
+
+        private long maxWeight = -1;
+
+        private ValueCodec<V> offHeapCodec;
+
+        private long offHeapCapacity;
+
+        private boolean recordStats;
+
+        private boolean recordLoadLatency;
+
+        private int hotKeyCount;
+
+        private boolean readMostly;
+
+        private int hotKeySampleInterval;
+
+        private Builder() {
+        }
+
+        /**
+         * max cache object count
+         *
+         * @param size cache size
+         * @return this builder
+         */
+        public Builder<K, V> size(int size) {
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * expire time , unit is millisecond , -1 means never expire
+         *
+         * @param expire expire time
+         * @return this builder
+         */
+        public Builder<K, V> expire(long expire) {
+            this.expire = expire;
+            return this;
+        }
+
+        /**
+         * predicate that cache value is qualified
+         *
+         * @param predicate cache value predicate
+         * @return this builder
+         */
+        public Builder<K, V> predicate(Predicate<V> predicate) {
+            this.predicate = predicate;
+            return this;
+        }
+
+        /**
+         * make the container thread safe with a lock striped store
+         *
+         * @param concurrencyLevel expected concurrent thread count , used as segment count
+         * @return this builder
+         */
+        public Builder<K, V> concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel <= 0) {
+                throw new IllegalArgumentException("concurrency level must be positive : " + concurrencyLevel);
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        /**
+         * age after which the next async read returns the stale value and refreshes it in background
+         *
+         * @param refreshAfterWrite refresh age , unit is millisecond
+         * @return this builder
+         */
+        public Builder<K, V> refreshAfterWrite(long refreshAfterWrite) {
+            if (refreshAfterWrite < 0) {
+                throw new IllegalArgumentException("refresh age must not be negative : " + refreshAfterWrite);
+            }
+            this.refreshAfterWrite = refreshAfterWrite;
+            return this;
+        }
+
+        /**
+         * expire time of each cache value by the expiry instead of the fixed expire time , e.g.
+         * expire after access or a time computed from the value
+         *
+         * @param expiry expiry
+         * @return this builder
+         */
+        public Builder<K, V> expiry(Expiry<K, V> expiry) {
+            this.expiry = Objects.requireNonNull(expiry, "expiry");
+            return this;
+        }
+
+        /**
+         * time source of expire times , default reads the system clock on every call , a coarse
+         * ticker makes reads cheaper and a fake ticker lets tests move time without sleeping
+         *
+         * @param ticker ticker , unit is millisecond
+         * @return this builder
+         */
+        public Builder<K, V> ticker(Ticker ticker) {
+            this.ticker = Objects.requireNonNull(ticker, "ticker");
+            return this;
+        }
+
+        /**
+         * invalidate keys written or removed on this container on the other nodes of the transport ,
+         * and drop keys invalidated by them , loaded values are not published
+         *
+         * @param namespace name of the cache , only containers of the same namespace exchange keys
+         * @param transport invalidation transport shared by the nodes
+         * @param keyCodec  cache key codec
+         * @return this builder
+         */
+        public Builder<K, V> invalidation(String namespace, InvalidationTransport transport, ValueCodec<K> keyCodec) {
+            if (Objects.requireNonNull(namespace, "namespace").getBytes(StandardCharsets.UTF_8).length > InvalidationBus.MAX_NAMESPACE_LENGTH) {
+                throw new IllegalArgumentException("invalidation namespace too long : " + namespace);
+            }
+            this.invalidationNamespace = namespace;
+            this.invalidationTransport = Objects.requireNonNull(transport, "transport");
+            this.invalidationKeyCodec = Objects.requireNonNull(keyCodec, "keyCodec");
+            return this;
+        }
+
+        /**
+         * invalidate keys on the other nodes with a batch window
+         *
+         * @param namespace name of the cache , only containers of the same namespace exchange keys
+         * @param transport invalidation transport shared by the nodes
+         * @param keyCodec  cache key codec
+         * @param window    max time an invalidated key waits to share a message with others , unit is millisecond
+         * @return this builder
+         */
+        public Builder<K, V> invalidation(String namespace, InvalidationTransport transport, ValueCodec<K> keyCodec, long window) {
+            if (window < 0) {
+                throw new IllegalArgumentException("invalidation window must not be negative : " + window);
+            }
+            this.invalidationWindow = window;
+            return invalidation(namespace, transport, keyCodec);
+        }
+
+        /**
+         * write through , added and removed cache values are written to the backing store on the
+         * caller thread before the container changes , a failed write leaves the container unchanged
+         *
+         * @param writer cache writer
+         * @return this builder
+         */
+        public Builder<K, V> writer(CacheWriter<K, V> writer) {
+            this.writer = Objects.requireNonNull(writer, "writer");
+            this.writeBehindDelay = -1;
+            return this;
+        }
+
+        /**
+         * write behind , added and removed cache values are coalesced by key and written to the
+         * backing store in batches on a background thread
+         *
+         * @param writer       cache writer
+         * @param delay        max time a write waits for others to share its batch , unit is millisecond
+         * @param maxBatchSize queued key count that is written without waiting for the delay
+         * @return this builder
+         */
+        public Builder<K, V> writeBehind(CacheWriter<K, V> writer, long delay, int maxBatchSize) {
+            if (delay < 0) {
+                throw new IllegalArgumentException("write behind delay must not be negative : " + delay);
+            }
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("write behind batch size must be positive : " + maxBatchSize);
+            }
+            this.writer = Objects.requireNonNull(writer, "writer");
+            this.writeBehindDelay = delay;
+            this.writeBehindBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * listen to write behind batches that are dropped , a batch is dropped after it failed
+         * on every retry or when it fails on close . failures are logged if it is not set
+         *
+         * @param writeFailureListener write failure listener
+         * @return this builder
+         */
+        public Builder<K, V> writeFailureListener(WriteFailureListener<K, V> writeFailureListener) {
+            this.writeFailureListener = Objects.requireNonNull(writeFailureListener, "writeFailureListener");
+            return this;
+        }
+
+        /**
+         * listen to cache values leaving the container , including evictions , the listener runs
+         * on the executor in removal order
+         *
+         * @param removalListener removal listener
+         * @return this builder
+         */
+        public Builder<K, V> removalListener(RemovalListener<K, V> removalListener) {
+            this.removalListener = Objects.requireNonNull(removalListener, "removalListener");
+            return this;
+        }
+
+        /**
+         * hold cache values through soft references , the gc clears them in least recently used
+         * order when the heap runs low , a cleared value reads as a miss
+         *
+         * @return this builder
+         */
+        public Builder<K, V> softValues() {
+            this.valueStrength = ValueStrength.SOFT;
+            return this;
+        }
+
+        /**
+         * hold cache values through weak references , a value is cleared as soon as nothing else
+         * references it , a cleared value reads as a miss
+         *
+         * @return this builder
+         */
+        public Builder<K, V> weakValues() {
+            this.valueStrength = ValueStrength.WEAK;
+            return this;
+        }
+
+        /**
+         * cache keys the fallback gives no value for as absent , so repeated misses of them are answered
+         * from memory until the marker expires , it is disabled by default
+         *
+         * @param negativeExpire expire time of absent markers , unit is millisecond , usually shorter than expire
+         * @return this builder
+         */
+        public Builder<K, V> negativeExpire(long negativeExpire) {
+            if (negativeExpire <= 0) {
+                throw new IllegalArgumentException("negative expire must be positive : " + negativeExpire);
+            }
+            this.negativeExpire = negativeExpire;
+            return this;
+        }
+
+        /**
+         * executor that runs background refreshes and async loads , default is the common pool
+         *
+         * @param executor executor
+         * @return this builder
+         */
+        public Builder<K, V> executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor");
+            return this;
+        }
+
+        /**
+         * index cache objects by expire time in a timer wheel , expired cache objects are dropped in
+         * amortized batches on writes and by clean up , instead of staying until read or lru eviction
+         *
+         * @param proactiveExpire true to enable
+         * @return this builder
+         */
+        public Builder<K, V> proactiveExpire(boolean proactiveExpire) {
+            this.proactiveExpire = proactiveExpire;
+            return this;
+        }
+
+        /**
+         * eviction policy , default is lru
+         *
+         * @param evictionPolicy eviction policy
+         * @return this builder
+         */
+        public Builder<K, V> evictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = Objects.requireNonNull(evictionPolicy, "eviction policy");
+            return this;
+        }
+
+        /**
+         * bound the container by the total weight of cache values instead of cache size ,
+         * it must be used together with a weigher
+         *
+         * @param maxWeight max total weight
+         * @return this builder
+         */
+        public Builder<K, V> maxWeight(long maxWeight) {
+            if (maxWeight < 0) {
+                throw new IllegalArgumentException("max weight must not be negative : " + maxWeight);
+            }
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /**
+         * compute the weight of cache values , it must be used together with max weight
+         *
+         * @param weigher cache value weigher
+         * @return this builder
+         */
+        public Builder<K, V> weigher(Weigher<K, V> weigher) {
+            this.weigher = Objects.requireNonNull(weigher, "weigher");
+            return this;
+        }
+
+        /**
+         * keep encoded cache values in direct memory instead of the heap , values are decoded on
+         * every read and the container is bounded by the off heap bytes instead of cache size
+         *
+         * @param codec    cache value codec
+         * @param capacity max off heap bytes
+         * @return this builder
+         */
+        public Builder<K, V> offHeap(ValueCodec<V> codec, long capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("off heap capacity must be positive : " + capacity);
+            }
+            this.offHeapCodec = Objects.requireNonNull(codec, "codec");
+            this.offHeapCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * record hit , miss , load and eviction statistics , off by default so that a container
+         * without statistics pays nothing for them
+         *
+         * @return this builder
+         */
+        public Builder<K, V> recordStats() {
+            return recordStats(false);
+        }
+
+        /**
+         * record statistics , optionally with a load latency histogram
+         *
+         * @param loadLatencyHistogram true to record the latency of every load in a histogram
+         * @return this builder
+         */
+        public Builder<K, V> recordStats(boolean loadLatencyHistogram) {
+            this.recordStats = true;
+            this.recordLoadLatency = loadLatencyHistogram;
+            return this;
+        }
+
+        /**
+         * keep cache values in a table that reads look up without a lock and without access order ,
+         * so the container is thread safe . single writes change the table in place , add cache value
+         * with a map and replace cache value publish a new table as one write . it fits data that is
+         * read very often and refreshed in bulk , a full container evicts the values written first
+         * instead of using the eviction policy
+         *
+         * @return this builder
+         */
+        public Builder<K, V> readMostly() {
+            this.readMostly = true;
+            return this;
+        }
+
+        /**
+         * track the hottest keys by reads , loads and expired reads in bounded memory , one read in
+         * sixteen is counted
+         *
+         * @param topK max reported key count per kind
+         * @return this builder
+         */
+        public Builder<K, V> trackHotKeys(int topK) {
+            return trackHotKeys(topK, 16);
+        }
+
+        /**
+         * track the hottest keys by reads , loads and expired reads in bounded memory
+         *
+         * @param topK           max reported key count per kind
+         * @param sampleInterval one read in this many is counted , 1 counts every read
+         * @return this builder
+         */
+        public Builder<K, V> trackHotKeys(int topK, int sampleInterval) {
+            if (topK <= 0) {
+                throw new IllegalArgumentException("hot key count must be positive : " + topK);
+            }
+            if (sampleInterval <= 0) {
+                throw new IllegalArgumentException("sample interval must be positive : " + sampleInterval);
+            }
+            this.hotKeyCount = topK;
+            this.hotKeySampleInterval = sampleInterval;
+            return this;
+        }
+
+        /**
+         * build the cache container
+         *
+         * @return cache container
+         */
+        public CacheContainer<K, V> build() {
+            if ((weigher == null) != (maxWeight == -1)) {
+                throw new IllegalStateException("max weight and weigher must be set together");
+            }
+            if (weigher != null && offHeapCodec != null) {
+                throw new IllegalStateException("off heap container is weighed by its chunk size , weigher is not supported");
+            }
+            if (valueStrength != ValueStrength.STRONG && offHeapCodec != null) {
+                throw new IllegalStateException("off heap values are not on the heap , soft or weak values are not supported");
+            }
+            if (readMostly && (concurrencyLevel > 0 || offHeapCodec != null || valueStrength != ValueStrength.STRONG)) {
+                throw new IllegalStateException("read mostly container is not segmented , off heap or soft or weak valued");
+            }
+            if (writeFailureListener != null && writeBehindDelay < 0) {
+                throw new IllegalStateException("write failure listener needs a write behind writer");
+            }
+            return new CacheContainer<>(this);
+        }
+
+    }
+
+    /**
+     * background refresh in flight , completed once its action calls back
+     */
+    private static final class Refresh<V> extends CompletableFuture<V> {
+
+        /**
+         * time the refresh started , unit is millisecond
+         */
+        private final long startTime;
+
+        private Refresh(long startTime) {
+            this.startTime = startTime;
+        }
+
+    }
+
+    /**
+     * how strongly a container holds its cache values
+     */
+    private enum ValueStrength {
+
+        STRONG,
+
+        SOFT,
+
+        WEAK
+
+    }
+
 }
@@ -0,0 +1,37 @@
+package org.ian.anole.cache;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc cache object created by a cache store , it carries the weight and the timer wheel node the
+ * container keeps for the stored value , so the public cache object stays as small as it was
+ **/
+class CacheEntry<V> extends CacheObject<V> {
+
+    /**
+     * weight of the cache value , counts against the max weight of the store
+     */
+    int weight = 1;
+
+    /**
+     * node of the expiration timer wheel , guarded by the wheel lock
+     */
+    Object timerNode;
+
+    /**
+     * cache entry created at the given time
+     *
+     * @param data   cache value
+     * @param expire expire time , unit is millisecond , -1 if never expire
+     * @param now    current time of the container ticker , unit is millisecond
+     */
+    CacheEntry(V data, long expire, long now) {
+        super(data, expire, now);
+    }
+
+    @Override
+    int weight() {
+        return weight;
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.ian.anole.cache;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc java flight recorder events of cache containers , off unless the jvm runs with -Danole.jfr=true
+ * <p>
+ * the flag is a constant , so every hook folds away when it is off . the events are recorded by
+ * JfrCacheEvents , which is built from src/main/jfr on jdk 11 and later and loaded by reflection only
+ * when the flag is on and the jvm has jdk.jfr , so this class and its callers still run on any jdk 8 .
+ * recordings pick the events up by name , their thresholds can be changed in the recording settings
+ **/
+final class CacheEvents {
+
+    /**
+     * recorder of the events , null if events are off
+     */
+    private static final Recorder RECORDER = Boolean.getBoolean("anole.jfr") ? load() : null;
+
+    /**
+     * true if events are emitted
+     */
+    static final boolean ENABLED = RECORDER != null;
+
+    /**
+     * eviction batch open on the current thread
+     */
+    private static final ThreadLocal<Object> EVICTIONS = new ThreadLocal<>();
+
+    private CacheEvents() {
+    }
+
+    private static Recorder load() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (Recorder) Class.forName("org.ian.anole.cache.JfrCacheEvents").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            // no jdk.jfr , or the jar was built without the jfr sources
+            return null;
+        }
+    }
+
+    /**
+     * start timing a fallback load
+     *
+     * @return load event , null if it is not recorded
+     */
+    static Object beginLoad() {
+        return ENABLED ? RECORDER.beginLoad() : null;
+    }
+
+    /**
+     * commit a fallback load that is slower than the threshold
+     *
+     * @param event   load event of begin load , may be null
+     * @param key     loaded cache key , or the key collection of a bulk load
+     * @param result  loaded cache value , or the value map of a bulk load
+     * @param failure exception of the fallback , null if it returned
+     */
+    static void endLoad(Object event, Object key, Object result, Throwable failure) {
+        if (event != null) {
+            RECORDER.endLoad(event, key, result, failure);
+        }
+    }
+
+    /**
+     * open an eviction batch on the current thread , size evictions until its end are one event
+     *
+     * @return true if this call opened the batch and must end it
+     */
+    static boolean beginEvictions() {
+        if (!ENABLED || EVICTIONS.get() != null) {
+            return false;
+        }
+        Object batch = RECORDER.beginEvictions();
+        if (batch == null) {
+            return false;
+        }
+        EVICTIONS.set(batch);
+        return true;
+    }
+
+    /**
+     * count a size eviction into the open batch , or record it alone if none is open
+     *
+     * @param weight weight of the evicted cache object
+     */
+    static void evicted(long weight) {
+        if (ENABLED) {
+            RECORDER.evicted(EVICTIONS.get(), weight);
+        }
+    }
+
+    /**
+     * close the eviction batch , it is recorded if anything was evicted
+     *
+     * @param opened result of begin evictions
+     */
+    static void endEvictions(boolean opened) {
+        if (!opened) {
+            return;
+        }
+        Object batch = EVICTIONS.get();
+        EVICTIONS.remove();
+        RECORDER.endEvictions(batch);
+    }
+
+    /**
+     * record a read that found an expired cache value
+     *
+     * @param key     cache key
+     * @param overdue time since the value expired , unit is millisecond
+     */
+    static void expiredRead(Object key, long overdue) {
+        if (ENABLED) {
+            RECORDER.expiredRead(key, overdue);
+        }
+    }
+
+    /**
+     * records the events , the events are passed as objects so that no jdk.jfr type leaks out
+     */
+    interface Recorder {
+
+        /**
+         * @return begun load event , null if the event type is disabled
+         */
+        Object beginLoad();
+
+        void endLoad(Object event, Object key, Object result, Throwable failure);
+
+        /**
+         * @return begun eviction batch , null if the event type is disabled
+         */
+        Object beginEvictions();
+
+        /**
+         * @param batch  open eviction batch , null to record the eviction alone
+         * @param weight weight of the evicted cache object
+         */
+        void evicted(Object batch, long weight);
+
+        void endEvictions(Object batch);
+
+        void expiredRead(Object key, long overdue);
+
+    }
+
+}
@@ -8,13 +8,41 @@ package org.ian.anole.cache;
 public class CacheObject<V> {
 
     private final V value;
-    private final long expire;
     private long createTime;
 
+    /**
+     * time after which cache object is expired , Long.MAX_VALUE if never expire , it moves on
+     * reads of an access based expiry
+     */
+    private volatile long expireTime;
+
+    /**
+     * create a marker that caches the absence of a value , its value is always null
+     *
+     * @param expire expire time of the marker , unit is millisecond
+     * @param now    current time of the container ticker , unit is millisecond
+     * @param <V>    cache value
+     * @return absent marker
+     */
+    static <V> CacheEntry<V> absent(long expire, long now) {
+        return new Absent<>(expire, now);
+    }
+
     public CacheObject(V data, long expire) {
+        this(data, expire, System.currentTimeMillis());
+    }
+
+    /**
+     * cache object created at the given time
+     *
+     * @param data   cache value
+     * @param expire expire time , unit is millisecond , -1 if never expire
+     * @param now    current time of the container ticker , unit is millisecond
+     */
+    public CacheObject(V data, long expire, long now) {
         this.value = data;
-        this.expire = expire;
-        this.createTime = System.currentTimeMillis();
+        this.createTime = now;
+        this.expireTime = deadline(now, expire);
     }
 
     /**
@@ -27,22 +55,127 @@ public class CacheObject<V> {
     }
 
     /**
-     * refresh cache create time
+     * get cache create time
+     *
+     * @return create time , unit is millisecond
+     */
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    /**
+     * get the time after which cache object is expired
+     *
+     * @return expire time , unit is millisecond , Long.MAX_VALUE if never expire
+     */
+    public long getExpireTime() {
+        return expireTime;
+    }
+
+    /**
+     * reset the expire time from now
+     *
+     * @param expire expire time , unit is millisecond , -1 if never expire
+     * @param now    current time , unit is millisecond
+     */
+    void expireAfter(long expire, long now) {
+        this.expireTime = deadline(now, expire);
+    }
+
+    /**
+     * weight of the cache value , a cache object not created by a cache store weighs 1
+     *
+     * @return weight
+     */
+    int weight() {
+        return 1;
+    }
+
+    /**
+     * time left before cache object is expired
+     *
+     * @param now current time , unit is millisecond
+     * @return remaining time , unit is millisecond , -1 if never expire
+     */
+    long remaining(long now) {
+        long deadline = expireTime;
+        if (deadline == Long.MAX_VALUE) {
+            return -1;
+        }
+        return Math.max(0, deadline - now);
+    }
+
+    private static long deadline(long now, long expire) {
+        if (expire == -1) {
+            return Long.MAX_VALUE;
+        }
+        long deadline = now + expire;
+        // saturate on overflow
+        return deadline < now ? Long.MAX_VALUE : deadline;
+    }
+
+    /**
+     * refresh cache create time by the wall clock
      */
     public void refresh() {
-        this.createTime = System.currentTimeMillis();
+        refresh(System.currentTimeMillis());
     }
 
     /**
-     * predicate cache object is expire
+     * refresh cache create time , the expire time moves by the same amount
+     *
+     * @param now current time of the container ticker , unit is millisecond
+     */
+    public void refresh(long now) {
+        long deadline = expireTime;
+        if (deadline != Long.MAX_VALUE) {
+            this.expireTime = deadline(now, deadline - createTime);
+        }
+        this.createTime = now;
+    }
+
+    /**
+     * predicate cache object is expire by the wall clock
      *
      * @return if true expired , if false not expired
      */
     public boolean isExpire() {
-        if (expire == -1) {
-            return false;
+        return isExpire(System.currentTimeMillis());
+    }
+
+    /**
+     * predicate cache object is expire
+     *
+     * @param now current time of the container ticker , unit is millisecond
+     * @return if true expired , if false not expired
+     */
+    public boolean isExpire(long now) {
+        return now > expireTime;
+    }
+
+    /**
+     * predicate cache object is a marker of an absent value
+     *
+     * @return if true the loader gave no value for the key
+     */
+    public boolean isAbsent() {
+        return false;
+    }
+
+    /**
+     * marker of a key whose loader gave no value
+     */
+    private static final class Absent<V> extends CacheEntry<V> {
+
+        private Absent(long expire, long now) {
+            super(null, expire, now);
+        }
+
+        @Override
+        public boolean isAbsent() {
+            return true;
         }
-        return System.currentTimeMillis() - createTime > expire;
+
     }
 
 }
@@ -0,0 +1,350 @@
+package org.ian.anole.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc binary snapshot of a cache container that is restored lazily from a memory mapped file
+ * <p>
+ * layout , all numbers big endian :
+ * <pre>
+ * header : int magic , int version , long saved time
+ * block  : int block length , int entry count , entries
+ * entry  : int key length , key bytes , int value length , value bytes , long expire time
+ * </pre>
+ * times are wall clock milliseconds and an expire time of Long.MAX_VALUE means never expire .
+ * entries never cross a block , so every block can be mapped on its own
+ **/
+class CacheSnapshot<K, V> {
+
+    private static final int MAGIC = 0x414E4F4C;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_LENGTH = 16;
+
+    private static final int BLOCK_HEADER_LENGTH = 8;
+
+    /**
+     * max block length , a mapped buffer can not exceed 2GB
+     */
+    private static final int MAX_BLOCK_LENGTH = 1 << 30;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final ValueCodec<V> valueCodec;
+
+    /**
+     * mapped blocks , dropped when every entry was taken
+     */
+    private volatile MappedByteBuffer[] blocks;
+
+    /**
+     * entries not restored yet
+     */
+    private final ConcurrentHashMap<K, Entry> index;
+
+    private CacheSnapshot(ValueCodec<V> valueCodec, MappedByteBuffer[] blocks, ConcurrentHashMap<K, Entry> index) {
+        this.valueCodec = valueCodec;
+        this.blocks = blocks;
+        this.index = index;
+    }
+
+    /**
+     * write a snapshot file , it is written to a temp file first and moved into place
+     *
+     * @param path         snapshot file
+     * @param keys         cache keys
+     * @param cacheObjects cache objects of the keys
+     * @param keyCodec     cache key codec
+     * @param valueCodec   cache value codec
+     * @param now          current time of the ticker the expire times of the cache objects are measured by
+     * @param wallNow      current wall clock time , expire times are written in wall clock time
+     * @return entry count written , expired entries are skipped
+     * @throws IOException if the file can not be written
+     */
+    static <K, V> int write(Path path, List<K> keys, List<CacheObject<V>> cacheObjects,
+                            ValueCodec<K> keyCodec, ValueCodec<V> valueCodec, long now, long wallNow) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            // the buffer always ends at the file position , block headers are patched when a block is done
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(wallNow).putInt(0).putInt(0);
+            long blockStart = HEADER_LENGTH;
+            long position = HEADER_LENGTH + BLOCK_HEADER_LENGTH;
+            int blockCount = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                CacheObject<V> cacheObject = cacheObjects.get(i);
+                long expireTime = cacheObject.getExpireTime();
+                if (expireTime <= now) {
+                    continue;
+                }
+                if (expireTime != Long.MAX_VALUE) {
+                    long remaining = expireTime - now;
+                    expireTime = remaining >= Long.MAX_VALUE - wallNow ? Long.MAX_VALUE : wallNow + remaining;
+                }
+                V value = cacheObject.getValue();
+                if (value == null) {
+                    continue;
+                }
+                byte[] keyBytes = keyCodec.encode(keys.get(i));
+                byte[] valueBytes = valueCodec.encode(value);
+                long entryLength = 16L + keyBytes.length + valueBytes.length;
+                if (entryLength > MAX_BLOCK_LENGTH - BLOCK_HEADER_LENGTH) {
+                    throw new IOException("snapshot entry too large : " + entryLength);
+                }
+                if (position + entryLength - blockStart > MAX_BLOCK_LENGTH) {
+                    buffer = flush(channel, buffer, position);
+                    patchBlockHeader(channel, blockStart, position, blockCount);
+                    blockStart = position;
+                    buffer.putInt(0).putInt(0);
+                    position += BLOCK_HEADER_LENGTH;
+                    blockCount = 0;
+                }
+                buffer = put(channel, buffer, position, keyBytes, valueBytes, expireTime);
+                position += entryLength;
+                blockCount++;
+                count++;
+            }
+            flush(channel, buffer, position);
+            patchBlockHeader(channel, blockStart, position, blockCount);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return count;
+    }
+
+    /**
+     * map a snapshot file and index its keys , values stay in the mapping until they are taken
+     *
+     * @param path       snapshot file
+     * @param keyCodec   cache key codec
+     * @param valueCodec cache value codec
+     * @param now        current wall clock time
+     * @return snapshot , entries that expired while the file was at rest are not indexed
+     * @throws IOException if the file can not be read or is not a snapshot
+     */
+    static <K, V> CacheSnapshot<K, V> open(Path path, ValueCodec<K> keyCodec, ValueCodec<V> valueCodec, long now) throws IOException {
+        List<MappedByteBuffer> blocks = new ArrayList<>();
+        ConcurrentHashMap<K, Entry> index = new ConcurrentHashMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = read(channel, 0, HEADER_LENGTH);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("not a cache snapshot : " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported cache snapshot version : " + version);
+            }
+            long position = HEADER_LENGTH;
+            while (position < size) {
+                ByteBuffer blockHeader = read(channel, position, BLOCK_HEADER_LENGTH);
+                int blockLength = blockHeader.getInt();
+                int blockCount = blockHeader.getInt();
+                if (blockLength < 0 || position + BLOCK_HEADER_LENGTH + blockLength > size) {
+                    throw new IOException("corrupt cache snapshot block at " + position);
+                }
+                MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position + BLOCK_HEADER_LENGTH, blockLength);
+                int blockIndex = blocks.size();
+                blocks.add(block);
+                for (int i = 0; i < blockCount; i++) {
+                    int keyLength = block.getInt();
+                    K key = keyCodec.decode(slice(block, block.position(), keyLength));
+                    block.position(block.position() + keyLength);
+                    int valueLength = block.getInt();
+                    int valueOffset = block.position();
+                    block.position(valueOffset + valueLength);
+                    long expireTime = block.getLong();
+                    if (expireTime > now) {
+                        index.put(key, new Entry(blockIndex, valueOffset, valueLength, expireTime));
+                    }
+                }
+                position += BLOCK_HEADER_LENGTH + blockLength;
+            }
+        }
+        return new CacheSnapshot<>(valueCodec, blocks.toArray(new MappedByteBuffer[0]), index);
+    }
+
+    /**
+     * take the entry of a key out of the snapshot
+     *
+     * @param key cache key
+     * @param now current wall clock time
+     * @return restored entry , null if absent or expired
+     */
+    Restored<V> take(K key, long now) {
+        if (key == null) {
+            return null;
+        }
+        // read before the entry is removed , the take that drains the index may drop the mapping
+        // right after , but only once this entry is no longer in it
+        MappedByteBuffer[] mapped = blocks;
+        Entry entry = index.remove(key);
+        if (index.isEmpty()) {
+            // let the mapping go once the snapshot is drained
+            blocks = null;
+        }
+        if (entry == null || mapped == null || entry.expireTime <= now) {
+            return null;
+        }
+        V value = valueCodec.decode(slice(mapped[entry.block], entry.offset, entry.length));
+        long remaining = entry.expireTime == Long.MAX_VALUE ? -1 : entry.expireTime - now;
+        return new Restored<>(value, remaining);
+    }
+
+    /**
+     * drop the entry of a key , e.g. when a fresher value was written
+     *
+     * @param key cache key
+     */
+    void discard(K key) {
+        if (key != null) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * predicate every entry was taken or discarded
+     *
+     * @return true if drained
+     */
+    boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    private static ByteBuffer slice(ByteBuffer block, int offset, int length) {
+        ByteBuffer view = block.duplicate();
+        view.limit(offset + length);
+        view.position(offset);
+        return view.slice();
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of cache snapshot");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer put(FileChannel channel, ByteBuffer buffer, long position,
+                                  byte[] keyBytes, byte[] valueBytes, long expireTime) throws IOException {
+        buffer = ensure(channel, buffer, position, 4);
+        buffer.putInt(keyBytes.length);
+        buffer = putBytes(channel, buffer, position + 4, keyBytes);
+        buffer = ensure(channel, buffer, position + 4 + keyBytes.length, 4);
+        buffer.putInt(valueBytes.length);
+        buffer = putBytes(channel, buffer, position + 8 + keyBytes.length, valueBytes);
+        buffer = ensure(channel, buffer, position + 8 + keyBytes.length + valueBytes.length, 8);
+        buffer.putLong(expireTime);
+        return buffer;
+    }
+
+    private static ByteBuffer putBytes(FileChannel channel, ByteBuffer buffer, long position, byte[] bytes) throws IOException {
+        if (bytes.length > buffer.capacity()) {
+            buffer = flush(channel, buffer, position);
+            channel.write(ByteBuffer.wrap(bytes), position);
+            return buffer;
+        }
+        buffer = ensure(channel, buffer, position, bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    /**
+     * make room in the write buffer , the buffer always ends at the given file position
+     */
+    private static ByteBuffer ensure(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException {
+        if (buffer.remaining() < length) {
+            return flush(channel, buffer, position);
+        }
+        return buffer;
+    }
+
+    /**
+     * write the buffered bytes that end at the given file position
+     */
+    private static ByteBuffer flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        long start = position - buffer.remaining();
+        while (buffer.hasRemaining()) {
+            start += channel.write(buffer, start);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private static void patchBlockHeader(FileChannel channel, long blockStart, long blockEnd, int blockCount) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_LENGTH);
+        header.putInt((int) (blockEnd - blockStart - BLOCK_HEADER_LENGTH)).putInt(blockCount).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, blockStart + header.position());
+        }
+    }
+
+    /**
+     * position of one value in the mapped blocks
+     */
+    private static final class Entry {
+
+        private final int block;
+
+        private final int offset;
+
+        private final int length;
+
+        private final long expireTime;
+
+        private Entry(int block, int offset, int length, long expireTime) {
+            this.block = block;
+            this.offset = offset;
+            this.length = length;
+            this.expireTime = expireTime;
+        }
+
+    }
+
+    /**
+     * cache value restored from a snapshot
+     */
+    static final class Restored<V> {
+
+        final V value;
+
+        /**
+         * remaining expire time , unit is millisecond , -1 means never expire
+         */
+        final long remaining;
+
+        private Restored(V value, long remaining) {
+            this.value = value;
+            this.remaining = remaining;
+        }
+
+    }
+
+}
@@ -0,0 +1,235 @@
+package org.ian.anole.cache;
+
+import java.util.Arrays;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc immutable snapshot of cache container statistics
+ **/
+public final class CacheStats {
+
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, new long[RemovalCause.values().length], null);
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long loadSuccessCount;
+
+    private final long loadFailureCount;
+
+    private final long totalLoadTime;
+
+    private final long expiredReadCount;
+
+    private final long[] removalCount;
+
+    private final long[] loadLatency;
+
+    CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long totalLoadTime,
+               long expiredReadCount, long[] removalCount, long[] loadLatency) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.expiredReadCount = expiredReadCount;
+        this.removalCount = removalCount;
+        this.loadLatency = loadLatency;
+    }
+
+    /**
+     * stats with all counters zero , returned when recording is disabled
+     *
+     * @return empty stats
+     */
+    public static CacheStats empty() {
+        return EMPTY;
+    }
+
+    /**
+     * reads that found a live cache value
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * reads that found no cache value or an expired one
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * total reads
+     *
+     * @return request count
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * hit count divided by request count
+     *
+     * @return hit rate , 1 if there was no request
+     */
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * fallback loads that produced a value
+     *
+     * @return load success count
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * fallback loads that threw or produced nothing
+     *
+     * @return load failure count
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * time spent in fallback loads
+     *
+     * @return total load time , unit is nanosecond
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * average time of one fallback load
+     *
+     * @return average load penalty , unit is nanosecond
+     */
+    public double getAverageLoadPenalty() {
+        long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    /**
+     * reads that found an expired cache value
+     *
+     * @return expired read count
+     */
+    public long getExpiredReadCount() {
+        return expiredReadCount;
+    }
+
+    /**
+     * cache objects removed for the cause
+     *
+     * @param cause removal cause
+     * @return removal count
+     */
+    public long getRemovalCount(RemovalCause cause) {
+        return removalCount[cause.ordinal()];
+    }
+
+    /**
+     * cache objects evicted by size or expiration
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        long evictionCount = 0;
+        for (RemovalCause cause : RemovalCause.values()) {
+            if (cause.wasEvicted()) {
+                evictionCount += removalCount[cause.ordinal()];
+            }
+        }
+        return evictionCount;
+    }
+
+    /**
+     * load latency histogram , bucket i counts the loads that took [2^i , 2^(i+1)) nanoseconds
+     *
+     * @return bucket counts , empty if the histogram is disabled
+     */
+    public long[] getLoadLatencyHistogram() {
+        return loadLatency == null ? new long[0] : loadLatency.clone();
+    }
+
+    /**
+     * estimate a load latency percentile from the histogram , the upper bound of the bucket is returned
+     *
+     * @param percentile percentile , from 0 to 100
+     * @return load latency , unit is nanosecond , 0 if nothing was recorded
+     */
+    public long getLoadLatencyPercentile(double percentile) {
+        if (loadLatency == null) {
+            return 0;
+        }
+        long total = 0;
+        for (long count : loadLatency) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < loadLatency.length; i++) {
+            seen += loadLatency[i];
+            if (seen >= Math.max(rank, 1)) {
+                return (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * difference of this stats and an earlier one , e.g. to compare two measuring windows
+     *
+     * @param other earlier stats
+     * @return stats of the window between
+     */
+    public CacheStats minus(CacheStats other) {
+        long[] removals = new long[removalCount.length];
+        for (int i = 0; i < removals.length; i++) {
+            removals[i] = Math.max(0, removalCount[i] - other.removalCount[i]);
+        }
+        long[] latency = null;
+        if (loadLatency != null) {
+            latency = loadLatency.clone();
+            if (other.loadLatency != null) {
+                for (int i = 0; i < latency.length; i++) {
+                    latency[i] = Math.max(0, latency[i] - other.loadLatency[i]);
+                }
+            }
+        }
+        return new CacheStats(Math.max(0, hitCount - other.hitCount), Math.max(0, missCount - other.missCount),
+                Math.max(0, loadSuccessCount - other.loadSuccessCount), Math.max(0, loadFailureCount - other.loadFailureCount),
+                Math.max(0, totalLoadTime - other.totalLoadTime), Math.max(0, expiredReadCount - other.expiredReadCount),
+                removals, latency);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", expiredReadCount=" + expiredReadCount +
+                ", removalCount=" + Arrays.toString(removalCount) +
+                '}';
+    }
+
+}
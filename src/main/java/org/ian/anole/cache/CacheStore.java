@@ -0,0 +1,143 @@
+package org.ian.anole.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc storage behind a cache container , maps cache key to cache object
+ **/
+interface CacheStore<K, V> {
+
+    /**
+     * create the cache object that holds a cache value in this store , it is put afterwards
+     *
+     * @param key    cache key
+     * @param value  cache value
+     * @param expire expire time , unit is millisecond
+     * @param now    current time of the container ticker , unit is millisecond
+     * @return cache object
+     */
+    default CacheEntry<V> create(K key, V value, long expire, long now) {
+        return new CacheEntry<>(value, expire, now);
+    }
+
+    /**
+     * get cache object by cache key
+     *
+     * @param key cache key
+     * @return cache object , null if absent
+     */
+    CacheObject<V> get(K key);
+
+    /**
+     * get cache object by cache key without recording the access , it changes nothing , so peeks
+     * may run concurrently while no write runs
+     *
+     * @param key cache key
+     * @return cache object , null if absent
+     */
+    CacheObject<V> peek(K key);
+
+    /**
+     * put cache object
+     *
+     * @param key         cache key
+     * @param cacheObject cache object
+     * @return previous cache object , null if absent
+     */
+    CacheObject<V> put(K key, CacheObject<V> cacheObject);
+
+    /**
+     * put cache objects , a store may apply them as one write
+     *
+     * @param cacheObjects cache objects by cache key
+     * @return previous cache objects by cache key , keys without one are absent
+     */
+    default Map<K, CacheObject<V>> putAll(Map<K, CacheObject<V>> cacheObjects) {
+        Map<K, CacheObject<V>> previous = new HashMap<>();
+        for (Map.Entry<K, CacheObject<V>> entry : cacheObjects.entrySet()) {
+            CacheObject<V> cacheObject = put(entry.getKey(), entry.getValue());
+            if (cacheObject != null) {
+                previous.put(entry.getKey(), cacheObject);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * replace all cache objects by the given ones , a store may publish them as one write
+     *
+     * @param cacheObjects cache objects by cache key
+     * @return cache objects that were replaced or removed by cache key
+     */
+    default Map<K, CacheObject<V>> replaceAll(Map<K, CacheObject<V>> cacheObjects) {
+        Map<K, CacheObject<V>> current = new HashMap<>();
+        forEach(current::put);
+        Map<K, CacheObject<V>> previous = new HashMap<>();
+        for (Map.Entry<K, CacheObject<V>> entry : current.entrySet()) {
+            if (!cacheObjects.containsKey(entry.getKey()) && remove(entry.getKey(), entry.getValue())) {
+                previous.put(entry.getKey(), entry.getValue());
+            }
+        }
+        previous.putAll(putAll(cacheObjects));
+        return previous;
+    }
+
+    /**
+     * remove cache object by cache key
+     *
+     * @param key cache key
+     * @return removed cache object , null if absent
+     */
+    CacheObject<V> remove(K key);
+
+    /**
+     * remove cache object only if the key is still mapped to the given cache object
+     *
+     * @param key         cache key
+     * @param cacheObject expected cache object
+     * @return true if removed
+     */
+    boolean remove(K key, CacheObject<V> cacheObject);
+
+    /**
+     * free what a cache object that left the store holds , called once its removal is handled , so
+     * a replaced or removed value can still be read until then . cache objects evicted by size are
+     * freed by the store after its eviction listener returns
+     *
+     * @param key         cache key
+     * @param cacheObject cache object that left the store
+     */
+    default void release(K key, CacheObject<V> cacheObject) {
+    }
+
+    /**
+     * visit all cache objects without changing their access order
+     *
+     * @param action visitor , must not modify the store
+     */
+    void forEach(BiConsumer<K, CacheObject<V>> action);
+
+    /**
+     * remove all cache objects
+     */
+    void clear();
+
+    /**
+     * current cache object count
+     *
+     * @return cache object count
+     */
+    int size();
+
+    /**
+     * current total weight of all cache objects , equals size if no weigher is used
+     *
+     * @return total weight
+     */
+    long weightedSize();
+
+}
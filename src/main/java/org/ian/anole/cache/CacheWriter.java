@@ -0,0 +1,51 @@
+package org.ian.anole.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc write the cache values added to or removed from a cache container to the backing store ,
+ * e.g. a database , values cached by loads are not written back
+ **/
+public interface CacheWriter<K, V> {
+
+    /**
+     * write a cache value
+     *
+     * @param key   cache key
+     * @param value cache value
+     */
+    void write(K key, V value);
+
+    /**
+     * delete the value of a cache key
+     *
+     * @param key cache key
+     */
+    void delete(K key);
+
+    /**
+     * write cache values in one batch , default writes them one by one
+     *
+     * @param values cache values by cache key
+     */
+    default void writeAll(Map<K, V> values) {
+        for (Map.Entry<K, V> entry : values.entrySet()) {
+            write(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * delete the values of cache keys in one batch , default deletes them one by one
+     *
+     * @param keys cache keys
+     */
+    default void deleteAll(Collection<K> keys) {
+        for (K key : keys) {
+            delete(key);
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.ian.anole.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc wall clock ticker updated by a daemon thread , it may lag the system clock by its resolution
+ **/
+final class CoarseTicker implements Ticker {
+
+    /**
+     * default update period , unit is millisecond
+     */
+    private static final long DEFAULT_RESOLUTION = 4;
+
+    static final CoarseTicker SHARED = new CoarseTicker(DEFAULT_RESOLUTION);
+
+    private volatile long now = System.currentTimeMillis();
+
+    CoarseTicker(long resolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("ticker resolution must be positive : " + resolution);
+        }
+        Thread updater = new Thread(new Updater(this, TimeUnit.MILLISECONDS.toNanos(resolution)), "anole-coarse-ticker");
+        updater.setDaemon(true);
+        updater.start();
+    }
+
+    @Override
+    public long read() {
+        return now;
+    }
+
+    /**
+     * update loop , it only holds the ticker weakly so an unused ticker stops its thread
+     */
+    private static final class Updater implements Runnable {
+
+        private final WeakReference<CoarseTicker> ticker;
+
+        private final long periodNanos;
+
+        private Updater(CoarseTicker ticker, long periodNanos) {
+            this.ticker = new WeakReference<>(ticker);
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public void run() {
+            for (; ; ) {
+                CoarseTicker t = ticker.get();
+                if (t == null) {
+                    return;
+                }
+                t.now = System.currentTimeMillis();
+                t = null;
+                LockSupport.parkNanos(periodNanos);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,294 @@
+package org.ian.anole.cache;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc cache store with lru eviction by total weight on an intrusive hash table , not thread safe
+ * <p>
+ * the cache objects created by this store are the table entries themselves , they carry the key ,
+ * the hash , the bucket chain and the lru links , so a cached value costs one object instead of a
+ * map entry plus a cache object . cache objects created elsewhere , e.g. absent markers or the
+ * objects of a wrapping store , are held by a small entry that points to them
+ **/
+class CompactLruCacheStore<K, V> implements CacheStore<K, V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long maxWeight;
+
+    private final BiConsumer<K, CacheObject<V>> evictionListener;
+
+    /**
+     * sentinel of the circular lru list , the eldest entry follows it
+     */
+    private final Entry<K, V> header = new Entry<>();
+
+    private Entry<K, V>[] table;
+
+    private int size;
+
+    private long weightedSize;
+
+    /**
+     * compact lru cache store
+     *
+     * @param maxWeight        max total weight , max cache object count if no weigher is used
+     * @param evictionListener notified of every cache object evicted by size , may be null
+     */
+    CompactLruCacheStore(long maxWeight, BiConsumer<K, CacheObject<V>> evictionListener) {
+        this.maxWeight = maxWeight;
+        this.evictionListener = evictionListener;
+        this.table = newTable(INITIAL_CAPACITY);
+        header.before = header;
+        header.after = header;
+    }
+
+    @Override
+    public CacheEntry<V> create(K key, V value, long expire, long now) {
+        return new Entry<>(key, hash(key), value, expire, now);
+    }
+
+    @Override
+    public CacheObject<V> get(K key) {
+        Entry<K, V> entry = find(key, hash(key));
+        if (entry == null) {
+            return null;
+        }
+        if (entry.after != header) {
+            unlink(entry);
+            linkLast(entry);
+        }
+        return entry.target;
+    }
+
+    @Override
+    public CacheObject<V> peek(K key) {
+        Entry<K, V> entry = find(key, hash(key));
+        return entry == null ? null : entry.target;
+    }
+
+    @Override
+    public CacheObject<V> put(K key, CacheObject<V> cacheObject) {
+        int hash = hash(key);
+        Entry<K, V> entry = ownEntry(key, cacheObject);
+        if (entry == null) {
+            entry = new Entry<>(key, hash, cacheObject);
+        }
+        Entry<K, V> previous = removeEntry(key, hash, null);
+        if (size >= table.length - (table.length >>> 2)) {
+            resize();
+        }
+        int index = hash & (table.length - 1);
+        entry.next = table[index];
+        table[index] = entry;
+        linkLast(entry);
+        size++;
+        weightedSize += cacheObject.weight();
+        evict(entry);
+        return previous == null ? null : previous.target;
+    }
+
+    @Override
+    public CacheObject<V> remove(K key) {
+        Entry<K, V> entry = removeEntry(key, hash(key), null);
+        return entry == null ? null : entry.target;
+    }
+
+    @Override
+    public boolean remove(K key, CacheObject<V> cacheObject) {
+        return removeEntry(key, hash(key), cacheObject) != null;
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, CacheObject<V>> action) {
+        for (Entry<K, V> entry = header.after; entry != header; entry = entry.after) {
+            action.accept(entry.key, entry.target);
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(table, null);
+        header.before = header;
+        header.after = header;
+        size = 0;
+        weightedSize = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    private static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * the cache object as an entry of this store , if it was created by this store for the key and
+     * is not linked yet
+     */
+    @SuppressWarnings("unchecked")
+    private Entry<K, V> ownEntry(K key, CacheObject<V> cacheObject) {
+        if (!(cacheObject instanceof Entry)) {
+            return null;
+        }
+        Entry<K, V> entry = (Entry<K, V>) cacheObject;
+        if (entry.before != null || entry.target != entry || !Objects.equals(entry.key, key)) {
+            return null;
+        }
+        return entry;
+    }
+
+    private Entry<K, V> find(K key, int hash) {
+        for (Entry<K, V> entry = table[hash & (table.length - 1)]; entry != null; entry = entry.next) {
+            if (entry.hash == hash && Objects.equals(entry.key, key)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * unlink the entry of a key from its bucket and the lru list
+     *
+     * @param key      cache key
+     * @param hash     spread hash of the key
+     * @param expected cache object the entry must hold , null for any
+     * @return removed entry , null if absent or not holding the expected cache object
+     */
+    private Entry<K, V> removeEntry(K key, int hash, CacheObject<V> expected) {
+        int index = hash & (table.length - 1);
+        Entry<K, V> prev = null;
+        for (Entry<K, V> entry = table[index]; entry != null; prev = entry, entry = entry.next) {
+            if (entry.hash != hash || !Objects.equals(entry.key, key)) {
+                continue;
+            }
+            if (expected != null && entry.target != expected) {
+                return null;
+            }
+            if (prev == null) {
+                table[index] = entry.next;
+            } else {
+                prev.next = entry.next;
+            }
+            entry.next = null;
+            unlink(entry);
+            size--;
+            weightedSize -= entry.target.weight();
+            return entry;
+        }
+        return null;
+    }
+
+    private void linkLast(Entry<K, V> entry) {
+        Entry<K, V> last = header.before;
+        entry.before = last;
+        entry.after = header;
+        last.after = entry;
+        header.before = entry;
+    }
+
+    private void unlink(Entry<K, V> entry) {
+        entry.before.after = entry.after;
+        entry.after.before = entry.before;
+    }
+
+    /**
+     * evict the eldest cache objects until the total weight is within the max weight , a cache
+     * object heavier than the max weight is evicted alone , it would never fit
+     *
+     * @param added entry just put
+     */
+    private void evict(Entry<K, V> added) {
+        if (added.target.weight() > maxWeight) {
+            evictEntry(added);
+        }
+        while (weightedSize > maxWeight && header.after != header) {
+            evictEntry(header.after);
+        }
+    }
+
+    private void evictEntry(Entry<K, V> entry) {
+        removeEntry(entry.key, entry.hash, entry.target);
+        if (evictionListener != null) {
+            evictionListener.accept(entry.key, entry.target);
+        }
+    }
+
+    private void resize() {
+        Entry<K, V>[] old = table;
+        Entry<K, V>[] resized = newTable(old.length << 1);
+        int mask = resized.length - 1;
+        for (Entry<K, V> head : old) {
+            Entry<K, V> entry = head;
+            while (entry != null) {
+                Entry<K, V> next = entry.next;
+                int index = entry.hash & mask;
+                entry.next = resized[index];
+                resized[index] = entry;
+                entry = next;
+            }
+        }
+        table = resized;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Entry<K, V>[] newTable(int capacity) {
+        return (Entry<K, V>[]) new Entry<?, ?>[capacity];
+    }
+
+    /**
+     * table entry , it is the cache object itself unless it holds one created elsewhere
+     */
+    private static final class Entry<K, V> extends CacheEntry<V> {
+
+        private final K key;
+
+        private final int hash;
+
+        /**
+         * the cache object of the key , this entry if it was created by the store
+         */
+        private final CacheObject<V> target;
+
+        private Entry<K, V> next;
+
+        /**
+         * lru links , null until the entry is put
+         */
+        private Entry<K, V> before;
+
+        private Entry<K, V> after;
+
+        private Entry(K key, int hash, V value, long expire, long now) {
+            super(value, expire, now);
+            this.key = key;
+            this.hash = hash;
+            this.target = this;
+        }
+
+        private Entry(K key, int hash, CacheObject<V> target) {
+            super(null, -1, 0);
+            this.key = key;
+            this.hash = hash;
+            this.target = target;
+        }
+
+        private Entry() {
+            this(null, 0, null);
+        }
+
+    }
+
+}
@@ -0,0 +1,240 @@
+package org.ian.anole.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc read mostly cache store , reads look up the published table by one volatile read and never lock ,
+ * thread safe
+ * <p>
+ * writes are serialized by the store monitor . a single write changes the table in place , a bulk write
+ * copies it , applies the whole batch and publishes the copy , so readers never see a half applied batch .
+ * replace all publishes a new table that holds only the batch . reads keep no access order , a full table
+ * evicts the cache objects written first
+ **/
+class CopyOnWriteCacheStore<K, V> implements CacheStore<K, V> {
+
+    private final long maxWeight;
+
+    private final BiConsumer<K, CacheObject<V>> evictionListener;
+
+    /**
+     * published table , changed in place by single writes and replaced by bulk writes
+     */
+    private volatile Map<K, CacheObject<V>> table = new ConcurrentHashMap<>();
+
+    /**
+     * total weight of the published table
+     */
+    private volatile long weightedSize;
+
+    /**
+     * written cache objects in write order , guarded by this . an entry is stale once its key maps to
+     * another cache object , stale entries are skipped by eviction and dropped when they outnumber the table
+     */
+    private ArrayDeque<Written<K, V>> writeOrder = new ArrayDeque<>();
+
+    /**
+     * copy on write cache store
+     *
+     * @param maxWeight        max total weight , max cache object count if no weigher is used
+     * @param evictionListener notified of every cache object evicted by size , may be null
+     */
+    CopyOnWriteCacheStore(long maxWeight, BiConsumer<K, CacheObject<V>> evictionListener) {
+        this.maxWeight = maxWeight;
+        this.evictionListener = evictionListener;
+    }
+
+    @Override
+    public CacheObject<V> get(K key) {
+        return table.get(key);
+    }
+
+    @Override
+    public CacheObject<V> peek(K key) {
+        return table.get(key);
+    }
+
+    @Override
+    public CacheObject<V> put(K key, CacheObject<V> cacheObject) {
+        List<Written<K, V>> evicted;
+        CacheObject<V> previous;
+        synchronized (this) {
+            Map<K, CacheObject<V>> current = table;
+            previous = current.put(key, cacheObject);
+            long weight = weightedSize + cacheObject.weight() - (previous == null ? 0 : previous.weight());
+            writeOrder.add(new Written<>(key, cacheObject));
+            evicted = evict(current, weight);
+            compact(current);
+        }
+        notifyEvicted(evicted);
+        return previous;
+    }
+
+    @Override
+    public Map<K, CacheObject<V>> putAll(Map<K, CacheObject<V>> cacheObjects) {
+        List<Written<K, V>> evicted;
+        Map<K, CacheObject<V>> previous = new HashMap<>();
+        synchronized (this) {
+            Map<K, CacheObject<V>> copy = new ConcurrentHashMap<>(table);
+            long weight = weightedSize;
+            for (Map.Entry<K, CacheObject<V>> entry : cacheObjects.entrySet()) {
+                CacheObject<V> cacheObject = copy.put(entry.getKey(), entry.getValue());
+                if (cacheObject != null) {
+                    weight -= cacheObject.weight();
+                    previous.put(entry.getKey(), cacheObject);
+                }
+                weight += entry.getValue().weight();
+                writeOrder.add(new Written<>(entry.getKey(), entry.getValue()));
+            }
+            evicted = evict(copy, weight);
+            table = copy;
+            compact(copy);
+        }
+        notifyEvicted(evicted);
+        return previous;
+    }
+
+    @Override
+    public Map<K, CacheObject<V>> replaceAll(Map<K, CacheObject<V>> cacheObjects) {
+        List<Written<K, V>> evicted;
+        Map<K, CacheObject<V>> previous;
+        synchronized (this) {
+            Map<K, CacheObject<V>> replacement = new ConcurrentHashMap<>(cacheObjects);
+            long weight = 0;
+            writeOrder = new ArrayDeque<>(cacheObjects.size());
+            for (Map.Entry<K, CacheObject<V>> entry : cacheObjects.entrySet()) {
+                weight += entry.getValue().weight();
+                writeOrder.add(new Written<>(entry.getKey(), entry.getValue()));
+            }
+            evicted = evict(replacement, weight);
+            previous = table;
+            table = replacement;
+        }
+        notifyEvicted(evicted);
+        // no longer written , the monitor orders it before the swap
+        return previous;
+    }
+
+    @Override
+    public synchronized CacheObject<V> remove(K key) {
+        CacheObject<V> previous = table.remove(key);
+        if (previous != null) {
+            weightedSize -= previous.weight();
+            compact(table);
+        }
+        return previous;
+    }
+
+    @Override
+    public synchronized boolean remove(K key, CacheObject<V> cacheObject) {
+        if (cacheObject == null || !table.remove(key, cacheObject)) {
+            return false;
+        }
+        weightedSize -= cacheObject.weight();
+        compact(table);
+        return true;
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, CacheObject<V>> action) {
+        table.forEach(action);
+    }
+
+    @Override
+    public synchronized void clear() {
+        table = new ConcurrentHashMap<>();
+        weightedSize = 0;
+        writeOrder = new ArrayDeque<>();
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * remove the cache objects written first until the table is within the max weight , the caller
+     * holds the monitor
+     *
+     * @param target table to evict from , the published one or a copy about to be published
+     * @param weight total weight of the target
+     * @return evicted cache objects , null if none
+     */
+    private List<Written<K, V>> evict(Map<K, CacheObject<V>> target, long weight) {
+        List<Written<K, V>> evicted = null;
+        while (weight > maxWeight) {
+            Written<K, V> eldest = writeOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            if (!target.remove(eldest.key, eldest.cacheObject)) {
+                // stale , the key was written again or removed
+                continue;
+            }
+            weight -= eldest.cacheObject.weight();
+            if (evicted == null) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(eldest);
+        }
+        weightedSize = weight;
+        return evicted;
+    }
+
+    /**
+     * drop the stale write order entries once they outnumber the live ones , so rewrites and removes
+     * cost amortized constant time , the caller holds the monitor
+     *
+     * @param current table the write order belongs to
+     */
+    private void compact(Map<K, CacheObject<V>> current) {
+        if (writeOrder.size() <= 2 * current.size() + 16) {
+            return;
+        }
+        ArrayDeque<Written<K, V>> live = new ArrayDeque<>(current.size());
+        for (Written<K, V> written : writeOrder) {
+            if (current.get(written.key) == written.cacheObject) {
+                live.add(written);
+            }
+        }
+        writeOrder = live;
+    }
+
+    private void notifyEvicted(List<Written<K, V>> evicted) {
+        if (evicted != null && evictionListener != null) {
+            for (Written<K, V> written : evicted) {
+                evictionListener.accept(written.key, written.cacheObject);
+            }
+        }
+    }
+
+    /**
+     * one write in the write order
+     */
+    private static final class Written<K, V> {
+
+        private final K key;
+
+        private final CacheObject<V> cacheObject;
+
+        private Written(K key, CacheObject<V> cacheObject) {
+            this.key = key;
+            this.cacheObject = cacheObject;
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.ian.anole.cache;
+
+import java.util.function.BiConsumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc eviction policy of a cache container
+ **/
+public enum EvictionPolicy {
+
+    /**
+     * least recently used , cheap but one scan of cold keys flushes the hot set
+     */
+    LRU {
+        @Override
+        <K, V> CacheStore<K, V> createStore(long maxWeight, BiConsumer<K, CacheObject<V>> evictionListener) {
+            return new CompactLruCacheStore<>(maxWeight, evictionListener);
+        }
+    },
+
+    /**
+     * w-tinylfu , a frequency sketch admits only keys that are accessed more often than the ones
+     * they would evict , scan resistant with a higher hit rate for skewed traffic
+     */
+    TINY_LFU {
+        @Override
+        <K, V> CacheStore<K, V> createStore(long maxWeight, BiConsumer<K, CacheObject<V>> evictionListener) {
+            return new TinyLfuCacheStore<>(maxWeight, evictionListener);
+        }
+    };
+
+    /**
+     * create a not thread safe store with the policy
+     *
+     * @param maxWeight        max total weight , max cache object count if no weigher is used
+     * @param evictionListener notified of every cache object evicted by size , may be null
+     * @param <K>              cache key
+     * @param <V>              cache value
+     * @return cache store
+     */
+    abstract <K, V> CacheStore<K, V> createStore(long maxWeight, BiConsumer<K, CacheObject<V>> evictionListener);
+
+}
@@ -0,0 +1,80 @@
+package org.ian.anole.cache;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc compute the expire time of each cache value , so short lived and long lived values can
+ * share one cache container
+ **/
+@FunctionalInterface
+public interface Expiry<K, V> {
+
+    /**
+     * expire a cache value a fixed time after it is written
+     *
+     * @param expire expire time , unit is millisecond , -1 if never expire
+     * @param <K>    cache key
+     * @param <V>    cache value
+     * @return expiry
+     */
+    static <K, V> Expiry<K, V> afterWrite(long expire) {
+        checkExpire(expire);
+        return (key, value) -> expire;
+    }
+
+    /**
+     * expire a cache value a fixed time after it is written or last read
+     *
+     * @param expire expire time , unit is millisecond
+     * @param <K>    cache key
+     * @param <V>    cache value
+     * @return expiry
+     */
+    static <K, V> Expiry<K, V> afterAccess(long expire) {
+        checkExpire(expire);
+        return new Expiry<K, V>() {
+            @Override
+            public long expireAfterWrite(K key, V value) {
+                return expire;
+            }
+
+            @Override
+            public long expireAfterRead(K key, V value, long remaining) {
+                return expire;
+            }
+        };
+    }
+
+    /**
+     * check an expire time returned by an expiry
+     *
+     * @param expire expire time , unit is millisecond
+     */
+    static void checkExpire(long expire) {
+        if (expire < -1) {
+            throw new IllegalArgumentException("expire time must not be negative unless -1 : " + expire);
+        }
+    }
+
+    /**
+     * expire time of a cache value that is created or replaced
+     *
+     * @param key   cache key
+     * @param value cache value
+     * @return expire time from now , unit is millisecond , -1 if never expire
+     */
+    long expireAfterWrite(K key, V value);
+
+    /**
+     * expire time of a cache value after it is read , default keeps the remaining time
+     *
+     * @param key       cache key
+     * @param value     cache value
+     * @param remaining time left before the read , unit is millisecond , -1 if never expire
+     * @return expire time from now , unit is millisecond , -1 if never expire
+     */
+    default long expireAfterRead(K key, V value, long remaining) {
+        return remaining;
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.ian.anole.cache;
+
+import java.util.Arrays;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc count-min sketch of 4-bit counters that estimates how often a key was accessed ,
+ * all counters are halved periodically so that old popularity fades away
+ **/
+class FrequencySketch<K> {
+
+    private static final long[] SEED = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    /**
+     * max estimated frequency
+     */
+    static final int MAX_FREQUENCY = 15;
+
+    /**
+     * sixteen 4-bit counters per slot
+     */
+    private long[] table;
+
+    private int tableMask;
+
+    /**
+     * increments before all counters are halved
+     */
+    private int sampleSize;
+
+    private int size;
+
+    /**
+     * frequency sketch
+     *
+     * @param maxSize max cache object count , the sketch is sized to it
+     */
+    FrequencySketch(int maxSize) {
+        ensureCapacity(maxSize);
+    }
+
+    /**
+     * grow the sketch for the cache object count , recorded accesses are lost if it grows
+     *
+     * @param maxSize expected max cache object count
+     */
+    void ensureCapacity(int maxSize) {
+        int capacity = 16;
+        while (capacity < maxSize && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        if (table != null && table.length >= capacity) {
+            return;
+        }
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = 10 * Math.max(maxSize, 1);
+        this.size = 0;
+    }
+
+    /**
+     * estimated access frequency of the key
+     *
+     * @param key cache key
+     * @return frequency , from 0 to 15
+     */
+    int frequency(K key) {
+        int hash = spread(key == null ? 0 : key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * record one access of the key
+     *
+     * @param key cache key
+     */
+    void increment(K key) {
+        int hash = spread(key == null ? 0 : key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * forget all recorded accesses
+     */
+    void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+    }
+
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = 0xfL << offset;
+        if ((table[i] & mask) != mask) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * halve all counters
+     */
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            count += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (count >>> 2);
+    }
+
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += hash >>> 32;
+        return ((int) hash) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+}
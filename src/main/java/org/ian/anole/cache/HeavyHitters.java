@@ -0,0 +1,206 @@
+package org.ian.anole.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc top k keys by count in bounded memory , thread safe by its monitor , callers on hot paths
+ * stripe several instances
+ * <p>
+ * a count-min sketch with conservative update estimates the count of every key , a min heap keeps
+ * the k keys with the highest estimates . the sketch and the heap are halved periodically so that
+ * old traffic fades away
+ **/
+class HeavyHitters<K> {
+
+    private static final long[] SEED = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final int DEPTH = SEED.length;
+
+    private final int topK;
+
+    /**
+     * sketch rows one after another , each row has width counters
+     */
+    private final int[] table;
+
+    private final int widthMask;
+
+    /**
+     * increments before all counts are halved
+     */
+    private final int sampleSize;
+
+    private int size;
+
+    /**
+     * min heap of the top keys by count
+     */
+    private final Object[] heapKeys;
+
+    private final long[] heapCounts;
+
+    private final Map<K, Integer> heapIndex;
+
+    private int heapSize;
+
+    /**
+     * heavy hitters
+     *
+     * @param topK max tracked key count
+     */
+    HeavyHitters(int topK) {
+        int width = 1024;
+        while (width < topK * 32 && width < (1 << 24)) {
+            width <<= 1;
+        }
+        this.topK = topK;
+        this.table = new int[DEPTH * width];
+        this.widthMask = width - 1;
+        this.sampleSize = 10 * width;
+        this.heapKeys = new Object[topK];
+        this.heapCounts = new long[topK];
+        this.heapIndex = new HashMap<>(topK * 2);
+    }
+
+    /**
+     * count one occurrence of the key
+     *
+     * @param key key , must not be null
+     */
+    synchronized void increment(K key) {
+        int hash = spread(key.hashCode());
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, table[indexOf(hash, i)]);
+        }
+        if (min == Integer.MAX_VALUE) {
+            return;
+        }
+        // conservative update , only the counters at the minimum grow
+        for (int i = 0; i < DEPTH; i++) {
+            int index = indexOf(hash, i);
+            if (table[index] == min) {
+                table[index] = min + 1;
+            }
+        }
+        offer(key, min + 1);
+        if (++size == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * top keys by estimated count , highest first
+     *
+     * @param scale multiplier of the counts , the sampling interval of the counted occurrences
+     * @return hot keys
+     */
+    @SuppressWarnings("unchecked")
+    synchronized List<HotKeyReport.HotKey<K>> top(long scale) {
+        List<HotKeyReport.HotKey<K>> top = new ArrayList<>(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            top.add(new HotKeyReport.HotKey<>((K) heapKeys[i], heapCounts[i] * scale));
+        }
+        top.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return top;
+    }
+
+    /**
+     * put the key into the heap if its count is among the top k
+     */
+    private void offer(K key, long count) {
+        Integer index = heapIndex.get(key);
+        if (index != null) {
+            heapCounts[index] = count;
+            siftDown(index);
+            return;
+        }
+        if (heapSize < topK) {
+            heapKeys[heapSize] = key;
+            heapCounts[heapSize] = count;
+            heapIndex.put(key, heapSize);
+            siftUp(heapSize++);
+            return;
+        }
+        if (count <= heapCounts[0]) {
+            return;
+        }
+        heapIndex.remove(heapKeys[0]);
+        heapKeys[0] = key;
+        heapCounts[0] = count;
+        heapIndex.put(key, 0);
+        siftDown(0);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapCounts[parent] <= heapCounts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        for (; ; ) {
+            int child = (i << 1) + 1;
+            if (child >= heapSize) {
+                return;
+            }
+            if (child + 1 < heapSize && heapCounts[child + 1] < heapCounts[child]) {
+                child++;
+            }
+            if (heapCounts[i] <= heapCounts[child]) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void swap(int i, int j) {
+        Object key = heapKeys[i];
+        long count = heapCounts[i];
+        heapKeys[i] = heapKeys[j];
+        heapCounts[i] = heapCounts[j];
+        heapKeys[j] = key;
+        heapCounts[j] = count;
+        heapIndex.put((K) heapKeys[i], i);
+        heapIndex.put((K) heapKeys[j], j);
+    }
+
+    /**
+     * halve all counts , halving keeps the heap order
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        for (int i = 0; i < heapSize; i++) {
+            heapCounts[i] >>>= 1;
+        }
+        size >>>= 1;
+    }
+
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += hash >>> 32;
+        return i * (widthMask + 1) + (((int) hash) & widthMask);
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+}
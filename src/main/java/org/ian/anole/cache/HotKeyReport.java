@@ -0,0 +1,116 @@
+package org.ian.anole.cache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc immutable snapshot of the hottest keys of a cache container , counts are decayed estimates
+ **/
+public final class HotKeyReport<K> {
+
+    private static final HotKeyReport<?> EMPTY = new HotKeyReport<>(
+            Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+    private final List<HotKey<K>> topReads;
+
+    private final List<HotKey<K>> topLoads;
+
+    private final List<HotKey<K>> topExpiredReads;
+
+    HotKeyReport(List<HotKey<K>> topReads, List<HotKey<K>> topLoads, List<HotKey<K>> topExpiredReads) {
+        this.topReads = Collections.unmodifiableList(topReads);
+        this.topLoads = Collections.unmodifiableList(topLoads);
+        this.topExpiredReads = Collections.unmodifiableList(topExpiredReads);
+    }
+
+    /**
+     * report without keys , returned when tracking is disabled
+     *
+     * @param <K> cache key
+     * @return empty report
+     */
+    @SuppressWarnings("unchecked")
+    public static <K> HotKeyReport<K> empty() {
+        return (HotKeyReport<K>) EMPTY;
+    }
+
+    /**
+     * keys read most often , the reads are sampled so the counts are scaled up by the sampling interval
+     *
+     * @return hot keys , highest count first
+     */
+    public List<HotKey<K>> getTopReads() {
+        return topReads;
+    }
+
+    /**
+     * keys loaded by fallback most often , a key that keeps reloading may need a longer expire time
+     *
+     * @return hot keys , highest count first
+     */
+    public List<HotKey<K>> getTopLoads() {
+        return topLoads;
+    }
+
+    /**
+     * keys most often read after their value expired
+     *
+     * @return hot keys , highest count first
+     */
+    public List<HotKey<K>> getTopExpiredReads() {
+        return topExpiredReads;
+    }
+
+    @Override
+    public String toString() {
+        return "HotKeyReport{" +
+                "topReads=" + topReads +
+                ", topLoads=" + topLoads +
+                ", topExpiredReads=" + topExpiredReads +
+                '}';
+    }
+
+    /**
+     * key with its estimated count
+     *
+     * @param <K> cache key
+     */
+    public static final class HotKey<K> {
+
+        private final K key;
+
+        private final long count;
+
+        HotKey(K key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        /**
+         * cache key
+         *
+         * @return cache key
+         */
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * estimated recent count , counts are halved periodically so old traffic fades away
+         *
+         * @return count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + count;
+        }
+
+    }
+
+}
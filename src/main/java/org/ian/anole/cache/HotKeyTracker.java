@@ -0,0 +1,162 @@
+package org.ian.anole.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc track the hottest keys of a cache container by reads , loads and expired reads , thread safe
+ * <p>
+ * reads are on the hot path , so only one read in a sampling interval is counted , and each thread
+ * counts into one of a few stripes so that readers rarely share a monitor . the report sums the top
+ * keys of the stripes , a key is reported if it is among the top keys of its stripes . loads and
+ * expired reads are already slow , they are all counted in one place
+ **/
+class HotKeyTracker<K> {
+
+    /**
+     * max read stripe count
+     */
+    private static final int MAX_STRIPES = 8;
+
+    private final int topK;
+
+    private final int sampleInterval;
+
+    private final HeavyHitters<K>[] reads;
+
+    /**
+     * shift that maps a spread thread id to a read stripe index
+     */
+    private final int stripeShift;
+
+    private final HeavyHitters<K> loads;
+
+    private final HeavyHitters<K> expiredReads;
+
+    /**
+     * hot key tracker
+     *
+     * @param topK           max reported key count per kind
+     * @param sampleInterval one read in this many is counted
+     */
+    HotKeyTracker(int topK, int sampleInterval) {
+        this(topK, sampleInterval, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * hot key tracker
+     *
+     * @param topK           max reported key count per kind
+     * @param sampleInterval one read in this many is counted
+     * @param concurrency    expected concurrent reader count , rounded up to a power of two read stripes
+     */
+    @SuppressWarnings("unchecked")
+    HotKeyTracker(int topK, int sampleInterval, int concurrency) {
+        this.topK = topK;
+        this.sampleInterval = sampleInterval;
+        int stripeCount = 1;
+        int bits = 0;
+        while (stripeCount < Math.min(concurrency, MAX_STRIPES)) {
+            stripeCount <<= 1;
+            bits++;
+        }
+        this.stripeShift = 32 - bits;
+        this.reads = (HeavyHitters<K>[]) new HeavyHitters<?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            reads[i] = new HeavyHitters<>(topK);
+        }
+        this.loads = new HeavyHitters<>(topK);
+        this.expiredReads = new HeavyHitters<>(topK);
+    }
+
+    /**
+     * record a read , it is counted by sampling
+     *
+     * @param key cache key , a null key is not counted
+     */
+    void recordRead(K key) {
+        if (key != null && (sampleInterval == 1 || ThreadLocalRandom.current().nextInt(sampleInterval) == 0)) {
+            readStripe().increment(key);
+        }
+    }
+
+    /**
+     * record fallback loads
+     *
+     * @param keys loaded cache keys , null keys are not counted
+     */
+    void recordLoads(Collection<K> keys) {
+        for (K key : keys) {
+            recordLoad(key);
+        }
+    }
+
+    /**
+     * record a fallback load
+     *
+     * @param key cache key , a null key is not counted
+     */
+    void recordLoad(K key) {
+        if (key != null) {
+            loads.increment(key);
+        }
+    }
+
+    /**
+     * record a read that found an expired value
+     *
+     * @param key cache key , a null key is not counted
+     */
+    void recordExpiredRead(K key) {
+        if (key != null) {
+            expiredReads.increment(key);
+        }
+    }
+
+    /**
+     * snapshot of the hottest keys
+     *
+     * @return hot key report
+     */
+    HotKeyReport<K> report() {
+        return new HotKeyReport<>(topReads(), loads.top(1), expiredReads.top(1));
+    }
+
+    private HeavyHitters<K> readStripe() {
+        if (reads.length == 1) {
+            return reads[0];
+        }
+        int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return reads[h >>> stripeShift];
+    }
+
+    /**
+     * sum the top reads of all stripes
+     *
+     * @return top k keys by summed count , highest first
+     */
+    private List<HotKeyReport.HotKey<K>> topReads() {
+        if (reads.length == 1) {
+            return reads[0].top(sampleInterval);
+        }
+        Map<K, Long> counts = new HashMap<>();
+        for (HeavyHitters<K> stripe : reads) {
+            for (HotKeyReport.HotKey<K> hotKey : stripe.top(sampleInterval)) {
+                counts.merge(hotKey.getKey(), hotKey.getCount(), Long::sum);
+            }
+        }
+        List<HotKeyReport.HotKey<K>> top = new ArrayList<>(counts.size());
+        for (Map.Entry<K, Long> entry : counts.entrySet()) {
+            top.add(new HotKeyReport.HotKey<>(entry.getKey(), entry.getValue()));
+        }
+        top.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return top.size() > topK ? new ArrayList<>(top.subList(0, topK)) : top;
+    }
+
+}
@@ -0,0 +1,270 @@
+package org.ian.anole.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc batch the invalidated keys of one cache container and exchange them with other nodes
+ * <p>
+ * keys written within the batch window are coalesced and published as few messages , a full
+ * batch is published at once . a message carries the namespace of its container and the node id
+ * of its publisher , so a node only applies messages of the same namespace from other nodes . a
+ * key is encoded when it is published , a key too large for a message is not published
+ * <p>
+ * message : int magic , long node id , short namespace length and namespace bytes , int key count ,
+ * then int key length and key bytes per key
+ **/
+class InvalidationBus<K> {
+
+    private static final Logger LOGGER = Logger.getLogger(InvalidationBus.class.getName());
+
+    private static final int MAGIC = 0x414E4F32;
+
+    /**
+     * max message length , it fits one udp datagram
+     */
+    private static final int MAX_MESSAGE_LENGTH = 60000;
+
+    /**
+     * max namespace length in utf-8 bytes
+     */
+    static final int MAX_NAMESPACE_LENGTH = 255;
+
+    /**
+     * key count that publishes a batch without waiting for the window
+     */
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    /**
+     * publishes batches of all open buses off the writer threads , it is stopped when the last bus
+     * is closed , guarded by the class
+     */
+    private static ScheduledExecutorService sharedFlusher;
+
+    /**
+     * open bus count , guarded by the class
+     */
+    private static int openBuses;
+
+    private final long nodeId = ThreadLocalRandom.current().nextLong();
+
+    private final byte[] namespace;
+
+    private final int headerLength;
+
+    private final InvalidationTransport transport;
+
+    private final ValueCodec<K> keyCodec;
+
+    private final long window;
+
+    /**
+     * drop a key invalidated by another node
+     */
+    private final Consumer<K> invalidator;
+
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * receiver subscribed to the transport , kept to unsubscribe it on close
+     */
+    private final Consumer<byte[]> receiver = this::receive;
+
+    /**
+     * encoded keys waiting to be published , guarded by this
+     */
+    private Map<K, byte[]> pending = new LinkedHashMap<>();
+
+    /**
+     * nothing is published or applied , guarded by this
+     */
+    private boolean closed;
+
+    /**
+     * invalidation bus
+     *
+     * @param namespace   name shared by the containers of the same cache on all nodes
+     * @param transport   message transport
+     * @param keyCodec    cache key codec
+     * @param window      max time a key waits for others to share its message , unit is millisecond
+     * @param invalidator drop a key invalidated by another node
+     */
+    InvalidationBus(String namespace, InvalidationTransport transport, ValueCodec<K> keyCodec, long window, Consumer<K> invalidator) {
+        this.namespace = namespace.getBytes(StandardCharsets.UTF_8);
+        if (this.namespace.length > MAX_NAMESPACE_LENGTH) {
+            throw new IllegalArgumentException("invalidation namespace too long : " + namespace);
+        }
+        this.headerLength = 4 + 8 + 2 + this.namespace.length + 4;
+        this.transport = transport;
+        this.keyCodec = keyCodec;
+        this.window = window;
+        this.invalidator = invalidator;
+        this.flusher = acquireFlusher();
+        transport.subscribe(receiver);
+    }
+
+    private static synchronized ScheduledExecutorService acquireFlusher() {
+        if (sharedFlusher == null) {
+            sharedFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "anole-invalidation-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        openBuses++;
+        return sharedFlusher;
+    }
+
+    private static synchronized void releaseFlusher() {
+        if (--openBuses == 0) {
+            // scheduled flushes of closed buses have nothing left to publish
+            sharedFlusher.shutdown();
+            sharedFlusher = null;
+        }
+    }
+
+    /**
+     * invalidate a key on the other nodes
+     *
+     * @param key cache key , a null key is not published
+     */
+    void publish(K key) {
+        if (key == null) {
+            return;
+        }
+        byte[] keyBytes = keyCodec.encode(key);
+        if (headerLength + 4 + keyBytes.length > MAX_MESSAGE_LENGTH) {
+            // the other nodes drop the value by its expire time
+            LOGGER.log(Level.WARNING, "invalidated key of " + keyBytes.length + " bytes does not fit a message , it is not published");
+            return;
+        }
+        boolean first;
+        boolean full;
+        synchronized (this) {
+            if (closed || pending.putIfAbsent(key, keyBytes) != null) {
+                return;
+            }
+            first = pending.size() == 1;
+            full = pending.size() >= MAX_BATCH_SIZE;
+        }
+        try {
+            if (full) {
+                flusher.execute(this::flush);
+            } else if (first) {
+                flusher.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // closed meanwhile , the key is published by close
+        }
+    }
+
+    /**
+     * publish the pending keys , a message the transport fails to send is lost
+     */
+    void flush() {
+        Map<K, byte[]> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        for (byte[] message : encode(batch.values())) {
+            try {
+                transport.publish(message);
+            } catch (RuntimeException e) {
+                // best effort , the other nodes still drop the values by their expire time
+                LOGGER.log(Level.FINE, "invalidation message is lost", e);
+            }
+        }
+    }
+
+    /**
+     * publish the pending keys , stop publishing and applying invalidations and unsubscribe from
+     * the transport , the transport is not closed , it may be shared
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        transport.unsubscribe(receiver);
+        flush();
+        releaseFlusher();
+    }
+
+    private List<byte[]> encode(Iterable<byte[]> batch) {
+        List<byte[]> messages = new ArrayList<>(1);
+        List<byte[]> keys = new ArrayList<>();
+        int length = headerLength;
+        for (byte[] keyBytes : batch) {
+            if (length + 4 + keyBytes.length > MAX_MESSAGE_LENGTH) {
+                messages.add(message(keys, length));
+                keys.clear();
+                length = headerLength;
+            }
+            keys.add(keyBytes);
+            length += 4 + keyBytes.length;
+        }
+        if (!keys.isEmpty()) {
+            messages.add(message(keys, length));
+        }
+        return messages;
+    }
+
+    private byte[] message(List<byte[]> keys, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(MAGIC).putLong(nodeId).putShort((short) namespace.length).put(namespace).putInt(keys.size());
+        for (byte[] keyBytes : keys) {
+            buffer.putInt(keyBytes.length).put(keyBytes);
+        }
+        return buffer.array();
+    }
+
+    private void receive(byte[] message) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(message);
+        if (buffer.remaining() < headerLength || buffer.getInt() != MAGIC || buffer.getLong() == nodeId
+                || buffer.getShort() != namespace.length) {
+            return;
+        }
+        for (byte b : namespace) {
+            if (buffer.get() != b) {
+                return;
+            }
+        }
+        int count = buffer.getInt();
+        for (int i = 0; i < count && buffer.remaining() >= 4; i++) {
+            int keyLength = buffer.getInt();
+            if (keyLength < 0 || keyLength > buffer.remaining()) {
+                return;
+            }
+            ByteBuffer keyBuffer = buffer.slice();
+            keyBuffer.limit(keyLength);
+            buffer.position(buffer.position() + keyLength);
+            invalidator.accept(keyCodec.decode(keyBuffer));
+        }
+    }
+
+}
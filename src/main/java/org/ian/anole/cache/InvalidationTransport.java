@@ -0,0 +1,68 @@
+package org.ian.anole.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc carry invalidation messages between the cache containers of many nodes , so a write on
+ * one node evicts the key on the others . delivery is best effort , the expire time still bounds
+ * how long a lost invalidation leaves a stale value
+ **/
+public interface InvalidationTransport extends Closeable {
+
+    /**
+     * in process transport , every container built with the same instance receives the
+     * invalidations of the others
+     *
+     * @return loopback transport
+     */
+    static InvalidationTransport loopback() {
+        return new LoopbackInvalidationTransport();
+    }
+
+    /**
+     * udp transport , each message is sent to every peer as one datagram
+     *
+     * @param local address to receive on
+     * @param peers addresses of the other nodes
+     * @return udp transport
+     * @throws IOException if the local address can not be bound
+     */
+    static InvalidationTransport udp(InetSocketAddress local, Collection<InetSocketAddress> peers) throws IOException {
+        return new UdpInvalidationTransport(local, peers);
+    }
+
+    /**
+     * send a message to the other nodes , it must not block for long
+     *
+     * @param message encoded invalidation batch
+     */
+    void publish(byte[] message);
+
+    /**
+     * register a receiver of the messages published by any node , it is called on a transport thread
+     *
+     * @param receiver message receiver
+     */
+    void subscribe(Consumer<byte[]> receiver);
+
+    /**
+     * remove a receiver , it is not called for the messages received afterwards
+     *
+     * @param receiver message receiver registered by subscribe
+     */
+    void unsubscribe(Consumer<byte[]> receiver);
+
+    /**
+     * release the resources of the transport , nothing is received afterwards
+     */
+    @Override
+    default void close() {
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.ian.anole.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc lock free latency histogram with power of two nanosecond buckets , bucket i counts the
+ * latencies in [2^i , 2^(i+1)) nanoseconds and bucket 0 also counts zero
+ **/
+class LatencyHistogram {
+
+    /**
+     * 2^40 nanoseconds is about 18 minutes , slower loads fall into the last bucket
+     */
+    static final int BUCKETS = 41;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * record one latency
+     *
+     * @param nanos latency , unit is nanosecond
+     */
+    void record(long nanos) {
+        counts[bucketOf(nanos)].increment();
+    }
+
+    /**
+     * bucket counts
+     *
+     * @return count of each bucket
+     */
+    long[] snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return snapshot;
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos <= 0) {
+            return 0;
+        }
+        return Math.min(63 - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+    }
+
+}
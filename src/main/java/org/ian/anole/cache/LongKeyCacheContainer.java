@@ -0,0 +1,362 @@
+package org.ian.anole.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc cache container keyed by primitive long , thread safe
+ * <p>
+ * keys live in an open addressing long table with parallel value , expire time and reference
+ * arrays , so a read neither boxes the key nor allocates . a full table evicts by the clock
+ * algorithm , expired values are evicted first . loads run outside the table lock and concurrent
+ * loads of one key share one fallback call
+ **/
+public class LongKeyCacheContainer<V> {
+
+    /**
+     * the default expire time , unit is millisecond
+     */
+    private static final long DEFAULT_EXPIRE = 1000 * 60 * 60 * 24 * 7;
+
+    /**
+     * the default cache size
+     */
+    private static final int DEFAULT_SIZE = 10000;
+
+    /**
+     * create a long key cache container
+     *
+     * @param size   max cache value count
+     * @param expire expire time , unit is millisecond , -1 if never expire
+     * @param <V>    cache value
+     * @return long key cache container
+     */
+    public static <V> LongKeyCacheContainer<V> of(int size, long expire) {
+        return new LongKeyCacheContainer<>(size, expire, Ticker.system());
+    }
+
+    /**
+     * create a long key cache container with a time source
+     *
+     * @param size   max cache value count
+     * @param expire expire time , unit is millisecond , -1 if never expire
+     * @param ticker time source of expire times
+     * @param <V>    cache value
+     * @return long key cache container
+     */
+    public static <V> LongKeyCacheContainer<V> of(int size, long expire, Ticker ticker) {
+        return new LongKeyCacheContainer<>(size, expire, ticker);
+    }
+
+    /**
+     * create a long key cache container with default size and expire time
+     *
+     * @param <V> cache value
+     * @return long key cache container
+     */
+    public static <V> LongKeyCacheContainer<V> of() {
+        return of(DEFAULT_SIZE, DEFAULT_EXPIRE);
+    }
+
+    private final int size;
+
+    private final long expire;
+
+    private final Ticker ticker;
+
+    private final SingleFlight<Long, V> loads = new SingleFlight<>();
+
+    /**
+     * slot keys , a slot is empty if its value is null , guarded by this
+     */
+    private final long[] keys;
+
+    private final Object[] values;
+
+    /**
+     * slot expire times , Long.MAX_VALUE if never expire
+     */
+    private final long[] expireTimes;
+
+    /**
+     * clock reference bits , set by reads and cleared by the sweeping hand
+     */
+    private final boolean[] referenced;
+
+    private final int mask;
+
+    private int count;
+
+    private int hand;
+
+    private LongKeyCacheContainer(int size, long expire, Ticker ticker) {
+        if (size <= 0 || size > 1 << 29) {
+            throw new IllegalArgumentException("cache size must be in (0 , 2^29] : " + size);
+        }
+        if (expire < -1) {
+            throw new IllegalArgumentException("expire time must not be negative unless -1 : " + expire);
+        }
+        this.size = size;
+        this.expire = expire;
+        this.ticker = Objects.requireNonNull(ticker, "ticker");
+        // load factor stays at most one half , so probe sequences are short and always end
+        int capacity = Integer.highestOneBit(size - 1 | 1) << 2;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.expireTimes = new long[capacity];
+        this.referenced = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * max cache value count
+     *
+     * @return cache size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * expire time
+     *
+     * @return expire time , unit is millisecond
+     */
+    public long getExpire() {
+        return expire;
+    }
+
+    /**
+     * current cache value count , expired values count until they are read or evicted
+     *
+     * @return cache value count
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * get cache value by cache key
+     *
+     * @param key cache key
+     * @return cache value , null if absent or expired
+     */
+    @SuppressWarnings("unchecked")
+    public V getCacheValue(long key) {
+        long now = ticker.read();
+        synchronized (this) {
+            int i = find(key);
+            if (i < 0) {
+                return null;
+            }
+            if (now > expireTimes[i]) {
+                delete(i);
+                return null;
+            }
+            referenced[i] = true;
+            return (V) values[i];
+        }
+    }
+
+    /**
+     * get cache value by cache key , and it will use fallback to create a new cache value if
+     * absent or expired , concurrent loads of the same key share one fallback call
+     *
+     * @param key      cache key
+     * @param fallback new cache value generate
+     * @return cache value
+     */
+    public V getCacheValue(long key, LongFunction<V> fallback) {
+        V v = getCacheValue(key);
+        if (v != null || fallback == null) {
+            return v;
+        }
+        return loads.execute(key, k -> {
+            // another caller may have finished the load just before this one started
+            V current = getCacheValue(key);
+            if (current != null) {
+                return current;
+            }
+            V fresh = fallback.apply(key);
+            addCacheValue(key, fresh);
+            return fresh;
+        });
+    }
+
+    /**
+     * get cache value map by cache keys , missed keys are loaded by one bulk fallback call
+     *
+     * @param keys     cache keys
+     * @param fallback bulk cache value create when miss if necessary , result is keyed by cache key
+     * @return cache value map , keys without value are absent
+     */
+    public Map<Long, V> getCacheValueMap(long[] keys, Function<long[], Map<Long, V>> fallback) {
+        Map<Long, V> cacheValueMap = new HashMap<>();
+        List<Long> missKeys = new ArrayList<>();
+        for (long k : keys) {
+            V v = getCacheValue(k);
+            if (v != null) {
+                cacheValueMap.put(k, v);
+            } else {
+                missKeys.add(k);
+            }
+        }
+        if (missKeys.size() > 0 && fallback != null) {
+            cacheValueMap.putAll(loads.executeAll(missKeys, ArrayList::new, ks -> {
+                long[] missKeyArray = new long[ks.size()];
+                for (int i = 0; i < missKeyArray.length; i++) {
+                    missKeyArray[i] = ks.get(i);
+                }
+                Map<Long, V> fallbackValue = fallback.apply(missKeyArray);
+                addCacheValue(fallbackValue);
+                return fallbackValue;
+            }));
+        }
+        return cacheValueMap;
+    }
+
+    /**
+     * add cache value , a null value is ignored
+     *
+     * @param key        cache key
+     * @param cacheValue cache value
+     */
+    public void addCacheValue(long key, V cacheValue) {
+        if (cacheValue == null) {
+            return;
+        }
+        long now = ticker.read();
+        long expireTime = expire == -1 || now + expire < now ? Long.MAX_VALUE : now + expire;
+        synchronized (this) {
+            int i = find(key);
+            if (i < 0) {
+                if (count >= size) {
+                    evict(now);
+                    i = find(key);
+                }
+                i = ~i;
+                keys[i] = key;
+                count++;
+            }
+            values[i] = cacheValue;
+            expireTimes[i] = expireTime;
+            referenced[i] = false;
+        }
+    }
+
+    /**
+     * add cache map
+     *
+     * @param cacheValueMap cache value map that need to be cached
+     */
+    public void addCacheValue(Map<Long, V> cacheValueMap) {
+        if (cacheValueMap == null) {
+            return;
+        }
+        for (Map.Entry<Long, V> entry : cacheValueMap.entrySet()) {
+            if (entry.getKey() != null) {
+                addCacheValue(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * remove cache value
+     *
+     * @param key cache key
+     */
+    public synchronized void removeCacheValue(long key) {
+        int i = find(key);
+        if (i >= 0) {
+            delete(i);
+        }
+    }
+
+    /**
+     * 清除缓存数据
+     */
+    public synchronized void clear() {
+        Arrays.fill(values, null);
+        count = 0;
+        hand = 0;
+    }
+
+    /**
+     * find the slot of a key
+     *
+     * @param key cache key
+     * @return slot index , or the bitwise complement of the empty slot the key would take
+     */
+    private int find(long key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return ~i;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * evict one value by the clock , a referenced value gets a second chance unless it is expired
+     *
+     * @param now current time
+     */
+    private void evict(long now) {
+        for (; ; ) {
+            int i = hand;
+            hand = (hand + 1) & mask;
+            if (values[i] == null) {
+                continue;
+            }
+            if (referenced[i] && now <= expireTimes[i]) {
+                referenced[i] = false;
+                continue;
+            }
+            delete(i);
+            return;
+        }
+    }
+
+    /**
+     * empty a slot and shift the following entries of its probe run back , so no tombstone is left
+     *
+     * @param i slot index
+     */
+    private void delete(int i) {
+        int j = i;
+        for (; ; ) {
+            j = (j + 1) & mask;
+            if (values[j] == null) {
+                break;
+            }
+            int home = slot(keys[j]);
+            // the entry at j may move to i only if its home slot is not cyclically within (i , j]
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!stays) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                expireTimes[i] = expireTimes[j];
+                referenced[i] = referenced[j];
+                i = j;
+            }
+        }
+        values[i] = null;
+        count--;
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.ian.anole.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc in process invalidation transport , a message is handed to every receiver on the publisher thread
+ **/
+class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<byte[]>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(byte[] message) {
+        for (Consumer<byte[]> receiver : receivers) {
+            try {
+                receiver.accept(message);
+            } catch (RuntimeException e) {
+                // one failing receiver must not keep the message from the others
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<byte[]> receiver) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<byte[]> receiver) {
+        receivers.remove(receiver);
+    }
+
+    @Override
+    public void close() {
+        receivers.clear();
+    }
+
+}
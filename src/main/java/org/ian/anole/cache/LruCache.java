@@ -7,7 +7,9 @@ import java.util.Map;
  * @author Ian
  * @date 2022/10/11
  * @desc lru cache util
+ * @deprecated not thread safe and not used by the cache container , use {@link CacheContainer} instead
  **/
+@Deprecated
 public class LruCache<K, V> extends LinkedHashMap<K, V> {
 
     private final int maxSize;
@@ -0,0 +1,226 @@
+package org.ian.anole.cache;
+
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc cache store that keeps encoded cache values in direct memory , not thread safe
+ * <p>
+ * the wrapped store only indexes small cache objects that point to their off heap chunk , so
+ * the gc never traces the values . the weight of a cache object is its chunk size and the
+ * wrapped store evicts by it , values that do not fit a chunk stay on heap as encoded bytes . the
+ * chunk of a replaced or removed value is freed when the container releases it , after the removal
+ * was notified , and the chunk of an evicted value after the eviction listener returns
+ **/
+class OffHeapCacheStore<K, V> implements CacheStore<K, V> {
+
+    /**
+     * chunk address of a cache value whose bytes are still on heap
+     */
+    private static final long ON_HEAP = -1;
+
+    /**
+     * chunk address of a cache value that left the store
+     */
+    private static final long RELEASED = -2;
+
+    /**
+     * guards chunks against readers outside the store lock
+     */
+    private final OffHeapMemory memory;
+
+    private final ValueCodec<V> codec;
+
+    private final CacheStore<K, V> store;
+
+    /**
+     * bumped on clear , cache objects of older generations no longer own their chunk
+     */
+    private int generation;
+
+    /**
+     * off heap cache store
+     *
+     * @param capacity         max bytes of off heap chunks
+     * @param codec            cache value codec
+     * @param storeFactory     create the wrapped store by the eviction listener it must notify
+     * @param evictionListener notified of every cache object evicted by size , may be null
+     */
+    OffHeapCacheStore(long capacity, ValueCodec<V> codec,
+                      Function<BiConsumer<K, CacheObject<V>>, CacheStore<K, V>> storeFactory,
+                      BiConsumer<K, CacheObject<V>> evictionListener) {
+        this.memory = new OffHeapMemory(capacity);
+        this.codec = codec;
+        this.store = storeFactory.apply((k, cacheObject) -> {
+            // the listener may still read the evicted value
+            if (evictionListener != null) {
+                evictionListener.accept(k, cacheObject);
+            }
+            release(cacheObject);
+        });
+    }
+
+    @Override
+    public CacheEntry<V> create(K key, V value, long expire, long now) {
+        byte[] bytes = codec.encode(value);
+        OffHeapCacheObject<V> cacheObject = new OffHeapCacheObject<>(this, bytes, expire, now);
+        int chunkSize = memory.chunkSize(bytes.length);
+        cacheObject.weight = chunkSize < 0 ? bytes.length : chunkSize;
+        return cacheObject;
+    }
+
+    @Override
+    public CacheObject<V> get(K key) {
+        return store.get(key);
+    }
+
+    @Override
+    public CacheObject<V> peek(K key) {
+        return store.peek(key);
+    }
+
+    @Override
+    public CacheObject<V> put(K key, CacheObject<V> cacheObject) {
+        // evict first , so the chunk of the new value can reuse the memory of evicted ones
+        CacheObject<V> previous = store.put(key, cacheObject);
+        if (cacheObject instanceof OffHeapCacheObject) {
+            moveOffHeap((OffHeapCacheObject<V>) cacheObject);
+        }
+        return previous;
+    }
+
+    @Override
+    public CacheObject<V> remove(K key) {
+        return store.remove(key);
+    }
+
+    @Override
+    public boolean remove(K key, CacheObject<V> cacheObject) {
+        return store.remove(key, cacheObject);
+    }
+
+    @Override
+    public void release(K key, CacheObject<V> cacheObject) {
+        release(cacheObject);
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, CacheObject<V>> action) {
+        store.forEach(action);
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+        synchronized (memory) {
+            memory.reset();
+            generation++;
+        }
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public long weightedSize() {
+        return store.weightedSize();
+    }
+
+    private void moveOffHeap(OffHeapCacheObject<V> cacheObject) {
+        synchronized (memory) {
+            if (cacheObject.address != ON_HEAP) {
+                // evicted by its own put
+                return;
+            }
+            long address = memory.allocate(cacheObject.length);
+            if (address < 0) {
+                return;
+            }
+            memory.write(address, cacheObject.bytes);
+            cacheObject.address = address;
+            cacheObject.generation = generation;
+            cacheObject.bytes = null;
+        }
+    }
+
+    /**
+     * free the chunk of a cache object , later reads of its value return null . it is idempotent
+     *
+     * @param cacheObject cache object that left the store
+     */
+    private void release(CacheObject<V> cacheObject) {
+        if (!(cacheObject instanceof OffHeapCacheObject)) {
+            return;
+        }
+        OffHeapCacheObject<V> offHeap = (OffHeapCacheObject<V>) cacheObject;
+        synchronized (memory) {
+            if (offHeap.address >= 0 && offHeap.generation == generation) {
+                memory.free(offHeap.address, offHeap.length);
+            }
+            offHeap.address = RELEASED;
+            offHeap.bytes = null;
+        }
+    }
+
+    /**
+     * decode cache value , readers may race with eviction so the chunk is read under the memory lock
+     *
+     * @param cacheObject cache object
+     * @return cache value , null if it already left the store
+     */
+    private V read(OffHeapCacheObject<V> cacheObject) {
+        synchronized (memory) {
+            if (cacheObject.address >= 0) {
+                if (cacheObject.generation != generation) {
+                    return null;
+                }
+                return codec.decode(memory.read(cacheObject.address, cacheObject.length));
+            }
+            if (cacheObject.address == ON_HEAP) {
+                return codec.decode(ByteBuffer.wrap(cacheObject.bytes));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * cache object whose value lives in an off heap chunk
+     */
+    private static final class OffHeapCacheObject<V> extends CacheEntry<V> {
+
+        private final OffHeapCacheStore<?, V> store;
+
+        private final int length;
+
+        /**
+         * encoded value while it is on heap , guarded by the memory lock
+         */
+        private byte[] bytes;
+
+        /**
+         * chunk address , guarded by the memory lock
+         */
+        private long address = ON_HEAP;
+
+        private int generation;
+
+        private OffHeapCacheObject(OffHeapCacheStore<?, V> store, byte[] bytes, long expire, long now) {
+            super(null, expire, now);
+            this.store = store;
+            this.bytes = bytes;
+            this.length = bytes.length;
+        }
+
+        @Override
+        public V getValue() {
+            return store.read(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.ian.anole.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc slab allocator over direct memory , not thread safe
+ * <p>
+ * the memory is split into pages that are allocated lazily , each page is carved into chunks of
+ * one power of two size class and freed chunks go back to the free list of their class . an
+ * address is the page index shifted left by the page shift plus the offset in the page
+ **/
+class OffHeapMemory {
+
+    /**
+     * smallest chunk is 64 bytes
+     */
+    private static final int MIN_CHUNK_SHIFT = 6;
+
+    private static final int MIN_PAGE_SHIFT = 16;
+
+    private static final int MAX_PAGE_SHIFT = 20;
+
+    /**
+     * pages per capacity , a small capacity gets small pages so every class can own a page
+     */
+    private static final int PAGES_PER_CAPACITY_SHIFT = 6;
+
+    private final int pageShift;
+
+    private final ByteBuffer[] pages;
+
+    private int pageCount;
+
+    /**
+     * pages dropped by reset , carved again before new direct memory is allocated
+     */
+    private final ByteBuffer[] freePages;
+
+    private int freePageCount;
+
+    /**
+     * free chunk addresses of each size class , used as stacks
+     */
+    private final long[][] freeChunks;
+
+    private final int[] freeCount;
+
+    /**
+     * off heap memory
+     *
+     * @param capacity max bytes of chunks in use , pages for partially used classes come on top
+     */
+    OffHeapMemory(long capacity) {
+        int shift = 64 - Long.numberOfLeadingZeros(Math.max(capacity >>> PAGES_PER_CAPACITY_SHIFT, 1) - 1);
+        this.pageShift = Math.max(MIN_PAGE_SHIFT, Math.min(MAX_PAGE_SHIFT, shift));
+        int classes = pageShift - MIN_CHUNK_SHIFT + 1;
+        long pageLimit = ((capacity + (1L << pageShift) - 1) >>> pageShift) + classes;
+        this.pages = new ByteBuffer[(int) Math.min(pageLimit, Integer.MAX_VALUE >>> 1)];
+        this.freePages = new ByteBuffer[pages.length];
+        this.freeChunks = new long[classes][];
+        this.freeCount = new int[classes];
+        for (int i = 0; i < classes; i++) {
+            freeChunks[i] = new long[16];
+        }
+    }
+
+    /**
+     * largest value that fits one chunk
+     *
+     * @return max chunk size
+     */
+    int maxChunkSize() {
+        return 1 << pageShift;
+    }
+
+    /**
+     * size of the chunk that holds a value of the length
+     *
+     * @param length value length
+     * @return chunk size , -1 if the value does not fit a chunk
+     */
+    int chunkSize(int length) {
+        if (length > maxChunkSize()) {
+            return -1;
+        }
+        return 1 << (sizeClass(length) + MIN_CHUNK_SHIFT);
+    }
+
+    /**
+     * allocate a chunk
+     *
+     * @param length value length
+     * @return chunk address , -1 if no memory left for the size class
+     */
+    long allocate(int length) {
+        if (length > maxChunkSize()) {
+            return -1;
+        }
+        int sizeClass = sizeClass(length);
+        if (freeCount[sizeClass] == 0 && !carvePage(sizeClass)) {
+            return -1;
+        }
+        return freeChunks[sizeClass][--freeCount[sizeClass]];
+    }
+
+    /**
+     * give a chunk back to its size class
+     *
+     * @param address chunk address
+     * @param length  value length
+     */
+    void free(long address, int length) {
+        push(sizeClass(length), address);
+    }
+
+    /**
+     * write bytes to a chunk
+     *
+     * @param address chunk address
+     * @param bytes   value bytes
+     */
+    void write(long address, byte[] bytes) {
+        ByteBuffer page = pages[(int) (address >>> pageShift)].duplicate();
+        page.position((int) (address & ((1L << pageShift) - 1)));
+        page.put(bytes);
+    }
+
+    /**
+     * view of the bytes of a chunk
+     *
+     * @param address chunk address
+     * @param length  value length
+     * @return buffer from position to limit
+     */
+    ByteBuffer read(long address, int length) {
+        ByteBuffer page = pages[(int) (address >>> pageShift)].duplicate();
+        int offset = (int) (address & ((1L << pageShift) - 1));
+        page.limit(offset + length);
+        page.position(offset);
+        return page.slice();
+    }
+
+    /**
+     * forget all chunks , pages are kept for reuse
+     */
+    void reset() {
+        Arrays.fill(freeCount, 0);
+        int count = pageCount;
+        pageCount = 0;
+        for (int i = 0; i < count; i++) {
+            // pages stay allocated and are carved again by whichever class needs them first
+            freePages[freePageCount++] = pages[i];
+            pages[i] = null;
+        }
+    }
+
+    private boolean carvePage(int sizeClass) {
+        if (pageCount == pages.length) {
+            return false;
+        }
+        ByteBuffer page;
+        if (freePageCount > 0) {
+            page = freePages[--freePageCount];
+            freePages[freePageCount] = null;
+        } else {
+            page = ByteBuffer.allocateDirect(1 << pageShift);
+        }
+        int pageIndex = pageCount++;
+        pages[pageIndex] = page;
+        int chunkSize = 1 << (sizeClass + MIN_CHUNK_SHIFT);
+        long base = (long) pageIndex << pageShift;
+        for (int offset = (1 << pageShift) - chunkSize; offset >= 0; offset -= chunkSize) {
+            push(sizeClass, base + offset);
+        }
+        return true;
+    }
+
+    private void push(int sizeClass, long address) {
+        long[] stack = freeChunks[sizeClass];
+        if (freeCount[sizeClass] == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length << 1);
+            freeChunks[sizeClass] = stack;
+        }
+        stack[freeCount[sizeClass]++] = address;
+    }
+
+    private static int sizeClass(int length) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(length, 1) - 1);
+        return Math.max(shift, MIN_CHUNK_SHIFT) - MIN_CHUNK_SHIFT;
+    }
+
+}
@@ -0,0 +1,210 @@
+package org.ian.anole.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.function.BiConsumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc cache store that holds cache values through soft or weak references , not thread safe
+ * <p>
+ * the gc may clear a value at any time , a cleared value reads as null and so as a miss . cleared
+ * references are queued by the gc and their cache objects are purged in small batches on later
+ * reads and writes , so the store gives memory back under pressure instead of running out of it
+ **/
+class ReferenceCacheStore<K, V> implements CacheStore<K, V> {
+
+    /**
+     * max cache objects purged by one read or write
+     */
+    private static final int PURGE_BATCH_SIZE = 64;
+
+    private final CacheStore<K, V> store;
+
+    /**
+     * soft references if true , weak references if false
+     */
+    private final boolean soft;
+
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+    /**
+     * notified of every cache object purged because its value was collected
+     */
+    private final BiConsumer<K, CacheObject<V>> collectedListener;
+
+    /**
+     * reference cache store
+     *
+     * @param store             wrapped store
+     * @param soft              soft references if true , weak references if false
+     * @param collectedListener notified of every cache object purged because its value was collected
+     */
+    ReferenceCacheStore(CacheStore<K, V> store, boolean soft, BiConsumer<K, CacheObject<V>> collectedListener) {
+        this.store = store;
+        this.soft = soft;
+        this.collectedListener = collectedListener;
+    }
+
+    @Override
+    public CacheEntry<V> create(K key, V value, long expire, long now) {
+        return new ReferenceCacheObject<>(key, value, soft, queue, expire, now);
+    }
+
+    @Override
+    public CacheObject<V> get(K key) {
+        purge();
+        return store.get(key);
+    }
+
+    @Override
+    public CacheObject<V> peek(K key) {
+        return store.peek(key);
+    }
+
+    @Override
+    public CacheObject<V> put(K key, CacheObject<V> cacheObject) {
+        purge();
+        return store.put(key, cacheObject);
+    }
+
+    @Override
+    public CacheObject<V> remove(K key) {
+        return store.remove(key);
+    }
+
+    @Override
+    public boolean remove(K key, CacheObject<V> cacheObject) {
+        return store.remove(key, cacheObject);
+    }
+
+    @Override
+    public void release(K key, CacheObject<V> cacheObject) {
+        store.release(key, cacheObject);
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, CacheObject<V>> action) {
+        store.forEach(action);
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+        // references of the cleared cache objects no longer match any key
+        while (queue.poll() != null) {
+            // drop
+        }
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public long weightedSize() {
+        return store.weightedSize();
+    }
+
+    /**
+     * remove the cache objects of collected values , the queue poll is a plain read while it is empty
+     */
+    @SuppressWarnings("unchecked")
+    private void purge() {
+        for (int i = 0; i < PURGE_BATCH_SIZE; i++) {
+            Reference<? extends V> reference = queue.poll();
+            if (reference == null) {
+                return;
+            }
+            ValueReference<K, V> value = (ValueReference<K, V>) reference;
+            K key = value.key();
+            CacheObject<V> owner = value.owner();
+            if (store.remove(key, owner) && collectedListener != null) {
+                collectedListener.accept(key, owner);
+            }
+        }
+    }
+
+    /**
+     * reference to a cache value that remembers where it is cached
+     */
+    private interface ValueReference<K, V> {
+
+        K key();
+
+        CacheObject<V> owner();
+
+    }
+
+    private static final class SoftValue<K, V> extends SoftReference<V> implements ValueReference<K, V> {
+
+        private final K key;
+
+        private final CacheObject<V> owner;
+
+        private SoftValue(K key, V value, CacheObject<V> owner, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+            this.owner = owner;
+        }
+
+        @Override
+        public K key() {
+            return key;
+        }
+
+        @Override
+        public CacheObject<V> owner() {
+            return owner;
+        }
+
+    }
+
+    private static final class WeakValue<K, V> extends WeakReference<V> implements ValueReference<K, V> {
+
+        private final K key;
+
+        private final CacheObject<V> owner;
+
+        private WeakValue(K key, V value, CacheObject<V> owner, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+            this.owner = owner;
+        }
+
+        @Override
+        public K key() {
+            return key;
+        }
+
+        @Override
+        public CacheObject<V> owner() {
+            return owner;
+        }
+
+    }
+
+    /**
+     * cache object whose value is only softly or weakly reachable
+     */
+    private static final class ReferenceCacheObject<K, V> extends CacheEntry<V> {
+
+        private final Reference<V> reference;
+
+        private ReferenceCacheObject(K key, V value, boolean soft, ReferenceQueue<V> queue, long expire, long now) {
+            super(null, expire, now);
+            this.reference = soft ? new SoftValue<>(key, value, this, queue) : new WeakValue<>(key, value, this, queue);
+        }
+
+        @Override
+        public V getValue() {
+            return reference.get();
+        }
+
+    }
+
+}
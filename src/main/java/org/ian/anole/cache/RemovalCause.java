@@ -0,0 +1,44 @@
+package org.ian.anole.cache;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc the reason a cache object left a cache container
+ **/
+public enum RemovalCause {
+
+    /**
+     * removed by the user , e.g. remove cache value
+     */
+    EXPLICIT,
+
+    /**
+     * replaced by a newer cache value of the same key
+     */
+    REPLACED,
+
+    /**
+     * expire time passed
+     */
+    EXPIRED,
+
+    /**
+     * evicted to keep the cache size or weight within bounds
+     */
+    SIZE,
+
+    /**
+     * value held by a soft or weak reference was collected by the gc
+     */
+    COLLECTED;
+
+    /**
+     * predicate the removal was done by the container rather than the user
+     *
+     * @return true if evicted
+     */
+    public boolean wasEvicted() {
+        return this == EXPIRED || this == SIZE || this == COLLECTED;
+    }
+
+}
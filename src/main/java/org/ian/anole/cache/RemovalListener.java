@@ -0,0 +1,21 @@
+package org.ian.anole.cache;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc notified when a cache value leaves a cache container , it is called on the container
+ * executor rather than the thread that removed the value
+ **/
+@FunctionalInterface
+public interface RemovalListener<K, V> {
+
+    /**
+     * a cache value left the container
+     *
+     * @param key   cache key
+     * @param value cache value , null if it could no longer be read
+     * @param cause removal cause
+     */
+    void onRemoval(K key, V value, RemovalCause cause);
+
+}
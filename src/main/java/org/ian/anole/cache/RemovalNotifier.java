@@ -0,0 +1,88 @@
+package org.ian.anole.cache;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc queue removal notifications and deliver them on an executor , one drain task at a time
+ * so the listener sees them in removal order
+ **/
+class RemovalNotifier<K, V> {
+
+    private final RemovalListener<K, V> listener;
+
+    private final Executor executor;
+
+    private final Queue<Removal<K, V>> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    RemovalNotifier(RemovalListener<K, V> listener, Executor executor) {
+        this.listener = listener;
+        this.executor = executor;
+    }
+
+    /**
+     * queue a notification
+     *
+     * @param key   cache key
+     * @param value cache value
+     * @param cause removal cause
+     */
+    void notify(K key, V value, RemovalCause cause) {
+        queue.add(new Removal<>(key, value, cause));
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // retried by the next notification
+            draining.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            Removal<K, V> removal;
+            while ((removal = queue.poll()) != null) {
+                try {
+                    listener.onRemoval(removal.key, removal.value, removal.cause);
+                } catch (RuntimeException e) {
+                    // a failing listener must not stop later notifications
+                }
+            }
+        } finally {
+            draining.set(false);
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private static final class Removal<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        private final RemovalCause cause;
+
+        private Removal(K key, V value, RemovalCause cause) {
+            this.key = key;
+            this.value = value;
+            this.cause = cause;
+        }
+
+    }
+
+}
@@ -0,0 +1,290 @@
+package org.ian.anole.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc thread safe cache store , the key space is split into independently locked segments
+ * so that threads touching different segments never contend
+ * <p>
+ * reads of a segment share its read lock and only look up the key , the access is recorded in a
+ * small lossy buffer and applied to the eviction order of the segment by the next writer , so
+ * readers never wait for each other . a read recorded over an unapplied one is lost
+ **/
+class SegmentedCacheStore<K, V> implements CacheStore<K, V> {
+
+    /**
+     * max segment count
+     */
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    /**
+     * recorded reads per segment , a power of two
+     */
+    private static final int READ_BUFFER_SIZE = 16;
+
+    /**
+     * stands for the null key in the read buffer , where null is an empty slot
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private final Segment<K, V>[] segments;
+
+    /**
+     * shift that maps a spread hash to a segment index
+     */
+    private final int segmentShift;
+
+    /**
+     * segmented cache store , the max weight is split exactly , so the segments never hold more
+     * than the whole store may
+     *
+     * @param maxWeight        max total weight of the whole store
+     * @param concurrencyLevel expected concurrent writer count
+     * @param storeFactory     create the store of one segment by its max weight
+     */
+    SegmentedCacheStore(long maxWeight, int concurrencyLevel, LongFunction<CacheStore<K, V>> storeFactory) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("concurrency level must be positive : " + concurrencyLevel);
+        }
+        int segmentCount = 1;
+        int bits = 0;
+        // never create segments that could not hold one cache object
+        long limit = Math.min(concurrencyLevel, MAX_SEGMENTS);
+        while (segmentCount < limit && segmentCount << 1 <= maxWeight) {
+            segmentCount <<= 1;
+            bits++;
+        }
+        this.segmentShift = 32 - bits;
+        this.segments = newSegments(segmentCount);
+        long segmentWeight = maxWeight / segmentCount;
+        long remainder = maxWeight % segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(storeFactory.apply(i < remainder ? segmentWeight + 1 : segmentWeight));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Segment<K, V>[] newSegments(int count) {
+        return (Segment<K, V>[]) new Segment<?, ?>[count];
+    }
+
+    /**
+     * spread the key hash so that the high bits select a segment
+     *
+     * @param key cache key
+     * @return segment of the key
+     */
+    private Segment<K, V> segmentFor(Object key) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        int h = key == null ? 0 : key.hashCode();
+        h *= 0x9E3779B9;
+        return segments[h >>> segmentShift];
+    }
+
+    @Override
+    public CacheEntry<V> create(K key, V value, long expire, long now) {
+        return segmentFor(key).store.create(key, value, expire, now);
+    }
+
+    @Override
+    public CacheObject<V> get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        CacheObject<V> cacheObject;
+        segment.lock.readLock().lock();
+        try {
+            cacheObject = segment.store.peek(key);
+        } finally {
+            segment.lock.readLock().unlock();
+        }
+        // misses are recorded too , they count for the admission of the key
+        segment.recordRead(key);
+        return cacheObject;
+    }
+
+    @Override
+    public CacheObject<V> peek(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.readLock().lock();
+        try {
+            return segment.store.peek(key);
+        } finally {
+            segment.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public CacheObject<V> put(K key, CacheObject<V> cacheObject) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            segment.drainReads();
+            return segment.store.put(key, cacheObject);
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CacheObject<V> remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            segment.drainReads();
+            return segment.store.remove(key);
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(K key, CacheObject<V> cacheObject) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            segment.drainReads();
+            return segment.store.remove(key, cacheObject);
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void release(K key, CacheObject<V> cacheObject) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.writeLock().lock();
+        try {
+            segment.store.release(key, cacheObject);
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, CacheObject<V>> action) {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                segment.store.forEach(action);
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.writeLock().lock();
+            try {
+                segment.clearReads();
+                segment.store.clear();
+            } finally {
+                segment.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                size += segment.store.size();
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public long weightedSize() {
+        long weightedSize = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.readLock().lock();
+            try {
+                weightedSize += segment.store.weightedSize();
+            } finally {
+                segment.lock.readLock().unlock();
+            }
+        }
+        return weightedSize;
+    }
+
+    /**
+     * one independently locked part of the store
+     */
+    private static final class Segment<K, V> {
+
+        private final CacheStore<K, V> store;
+
+        /**
+         * readers share it , writers and the read buffer drain hold it exclusively , reentrant so a
+         * removal listener run by a writer may read the store
+         */
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * keys read since the last drain , null slots are empty
+         */
+        private final AtomicReferenceArray<Object> reads = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+        private Segment(CacheStore<K, V> store) {
+            this.store = store;
+        }
+
+        /**
+         * record a read in a random slot , the segment is drained once a read lands on an unapplied
+         * one and nobody holds the lock
+         *
+         * @param key cache key
+         */
+        private void recordRead(Object key) {
+            int index = ThreadLocalRandom.current().nextInt() & (READ_BUFFER_SIZE - 1);
+            if (reads.getAndSet(index, key == null ? NULL_KEY : key) == null || lock.isWriteLockedByCurrentThread()) {
+                // a writer reading from a removal listener must not reorder the store under itself
+                return;
+            }
+            if (lock.writeLock().tryLock()) {
+                try {
+                    drainReads();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+
+        /**
+         * apply the recorded reads to the eviction order , the caller holds the write lock
+         */
+        @SuppressWarnings("unchecked")
+        private void drainReads() {
+            for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                if (reads.get(i) == null) {
+                    continue;
+                }
+                Object key = reads.getAndSet(i, null);
+                if (key != null) {
+                    store.get(key == NULL_KEY ? null : (K) key);
+                }
+            }
+        }
+
+        private void clearReads() {
+            for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                reads.lazySet(i, null);
+            }
+        }
+
+    }
+
+}
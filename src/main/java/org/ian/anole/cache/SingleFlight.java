@@ -0,0 +1,151 @@
+package org.ian.anole.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc de-duplicate concurrent loads of the same key , the first caller loads and the others
+ * wait for the same result or the same exception
+ **/
+class SingleFlight<K, V> {
+
+    /**
+     * loads in flight by key
+     */
+    private final ConcurrentHashMap<K, Call<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * load one key , joining the load already in flight for the key if any
+     *
+     * @param key    cache key
+     * @param loader load the value , it runs at most once at a time per key
+     * @return loaded value
+     */
+    V execute(K key, Function<K, V> loader) {
+        if (key == null) {
+            return loader.apply(null);
+        }
+        Call<V> call = new Call<>();
+        Call<V> existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            V v = loader.apply(key);
+            call.complete(v);
+            return v;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * load keys , keys already in flight are joined and only the rest are handed to the loader
+     *
+     * @param keys       keys to load , duplicate keys are loaded once
+     * @param ownFactory create the collection of keys owned by this caller , in the type the loader takes
+     * @param loader     bulk load the keys owned by this caller
+     * @param <C>        key collection type of the loader
+     * @return loaded value map , keys without value are absent
+     */
+    <C extends Collection<K>> Map<K, V> executeAll(Collection<K> keys, Supplier<C> ownFactory, Function<C, Map<K, V>> loader) {
+        C ownKeys = ownFactory.get();
+        Map<K, Call<V>> ownCalls = new HashMap<>();
+        Map<K, Call<V>> joinCalls = new HashMap<>();
+        boolean ownNull = false;
+        for (K k : keys) {
+            if (k == null) {
+                if (!ownNull) {
+                    ownNull = true;
+                    ownKeys.add(null);
+                }
+                continue;
+            }
+            if (ownCalls.containsKey(k) || joinCalls.containsKey(k)) {
+                continue;
+            }
+            Call<V> call = new Call<>();
+            Call<V> existing = calls.putIfAbsent(k, call);
+            if (existing == null) {
+                ownKeys.add(k);
+                ownCalls.put(k, call);
+            } else {
+                joinCalls.put(k, existing);
+            }
+        }
+        Map<K, V> result = new HashMap<>();
+        if (!ownKeys.isEmpty()) {
+            try {
+                Map<K, V> loaded = loader.apply(ownKeys);
+                if (loaded != null) {
+                    result.putAll(loaded);
+                }
+                for (Map.Entry<K, Call<V>> entry : ownCalls.entrySet()) {
+                    entry.getValue().complete(loaded == null ? null : loaded.get(entry.getKey()));
+                }
+            } catch (Throwable e) {
+                for (Call<V> call : ownCalls.values()) {
+                    call.completeExceptionally(e);
+                }
+                throw e;
+            } finally {
+                for (Map.Entry<K, Call<V>> entry : ownCalls.entrySet()) {
+                    calls.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        // only wait for others after our own load , so two bulk callers can never wait on each other
+        for (Map.Entry<K, Call<V>> entry : joinCalls.entrySet()) {
+            V v = join(entry.getValue());
+            if (v != null) {
+                result.put(entry.getKey(), v);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * wait for a load of another caller
+     *
+     * @param call load in flight
+     * @return loaded value
+     */
+    private V join(Call<V> call) {
+        if (call.owner == Thread.currentThread()) {
+            throw new IllegalStateException("recursive load of the same cache key");
+        }
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * one load in flight
+     */
+    private static final class Call<V> extends CompletableFuture<V> {
+
+        private final Thread owner = Thread.currentThread();
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.ian.anole.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc records cache container statistics with striped counters , the disabled counter is a
+ * no-op so a container without statistics pays nothing but an inlined empty call
+ **/
+class StatsCounter {
+
+    /**
+     * counter that records nothing
+     */
+    static final StatsCounter DISABLED = new StatsCounter(false, false);
+
+    private final boolean enabled;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder loadSuccessCount = new LongAdder();
+
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private final LongAdder expiredReadCount = new LongAdder();
+
+    private final LongAdder[] removalCount = new LongAdder[RemovalCause.values().length];
+
+    /**
+     * load latency histogram , null if disabled
+     */
+    private final LatencyHistogram loadLatency;
+
+    StatsCounter(boolean enabled, boolean histogram) {
+        this.enabled = enabled;
+        for (int i = 0; i < removalCount.length; i++) {
+            removalCount[i] = new LongAdder();
+        }
+        this.loadLatency = enabled && histogram ? new LatencyHistogram() : null;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * current time for load timing
+     *
+     * @return nano time , 0 if disabled
+     */
+    long startTime() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    void recordHits(int count) {
+        if (enabled) {
+            hitCount.add(count);
+        }
+    }
+
+    void recordMisses(int count) {
+        if (enabled) {
+            missCount.add(count);
+        }
+    }
+
+    void recordExpiredRead() {
+        if (enabled) {
+            expiredReadCount.increment();
+        }
+    }
+
+    /**
+     * record a finished load
+     *
+     * @param startTime start time from start time
+     * @param success   true if the load produced a value
+     */
+    void recordLoad(long startTime, boolean success) {
+        if (!enabled) {
+            return;
+        }
+        long loadTime = System.nanoTime() - startTime;
+        if (success) {
+            loadSuccessCount.increment();
+        } else {
+            loadFailureCount.increment();
+        }
+        totalLoadTime.add(loadTime);
+        if (loadLatency != null) {
+            loadLatency.record(loadTime);
+        }
+    }
+
+    void recordRemoval(RemovalCause cause) {
+        if (enabled) {
+            removalCount[cause.ordinal()].increment();
+        }
+    }
+
+    /**
+     * take a snapshot of the counters
+     *
+     * @return cache stats
+     */
+    CacheStats snapshot() {
+        long[] removals = new long[removalCount.length];
+        for (int i = 0; i < removals.length; i++) {
+            removals[i] = removalCount[i].sum();
+        }
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadFailureCount.sum(),
+                totalLoadTime.sum(), expiredReadCount.sum(), removals,
+                loadLatency == null ? null : loadLatency.snapshot());
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.ian.anole.cache;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc time source of a cache container , expire times are measured by it
+ **/
+@FunctionalInterface
+public interface Ticker {
+
+    /**
+     * wall clock ticker , it reads the system clock on every call
+     *
+     * @return ticker
+     */
+    static Ticker system() {
+        return System::currentTimeMillis;
+    }
+
+    /**
+     * monotonic ticker by nano time , precise expire times that do not move with the wall clock
+     *
+     * @return ticker
+     */
+    static Ticker nanoTime() {
+        long origin = System.nanoTime();
+        // measured from creation , nano time itself may be negative
+        return () -> (System.nanoTime() - origin) / 1000000L;
+    }
+
+    /**
+     * shared coarse wall clock ticker , a daemon thread updates it every few milliseconds so
+     * reading it is a volatile read instead of a clock call
+     *
+     * @return ticker
+     */
+    static Ticker coarse() {
+        return CoarseTicker.SHARED;
+    }
+
+    /**
+     * coarse wall clock ticker with its own daemon update thread
+     *
+     * @param resolution update period , unit is millisecond
+     * @return ticker
+     */
+    static Ticker coarse(long resolution) {
+        return new CoarseTicker(resolution);
+    }
+
+    /**
+     * current time
+     *
+     * @return current time , unit is millisecond
+     */
+    long read();
+
+}
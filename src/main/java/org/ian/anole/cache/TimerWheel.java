@@ -0,0 +1,360 @@
+package org.ian.anole.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc hierarchical timer wheel that indexes cache objects by expire time , scheduling and
+ * descheduling are O(1) and expired cache objects are collected bucket by bucket as time advances
+ * <p>
+ * the wheel is striped by key , each stripe has its own buckets and lock , so writers of different
+ * keys rarely contend . a write advances only the stripe of its key , clean up advances all
+ **/
+class TimerWheel<K, V> {
+
+    /**
+     * max stripe count
+     */
+    private static final int MAX_STRIPES = 16;
+
+    /**
+     * bucket count of each wheel
+     */
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+
+    /**
+     * time span of one bucket of each wheel , unit is millisecond , rounded up to a power of two
+     */
+    private static final long[] SPANS = {
+            1L << 10, // 1.02s
+            1L << 16, // 1.09m
+            1L << 22, // 1.17h
+            1L << 27, // 1.55d
+            4L << 27, // 6.21d
+            4L << 27, // 6.21d
+    };
+
+    /**
+     * shift that turns a time into the ticks of each wheel
+     */
+    private static final int[] SHIFT = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4]),
+    };
+
+    /**
+     * marks a cache object that was removed before it could be scheduled
+     */
+    private static final Object RETIRED = new Object();
+
+    private final Stripe<K, V>[] stripes;
+
+    /**
+     * shift that maps a spread hash to a stripe index
+     */
+    private final int stripeShift;
+
+    /**
+     * timer wheel
+     *
+     * @param now         current time , unit is millisecond
+     * @param concurrency expected concurrent writer count , rounded up to a power of two stripes
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(long now, int concurrency) {
+        int stripeCount = 1;
+        int bits = 0;
+        while (stripeCount < Math.min(concurrency, MAX_STRIPES)) {
+            stripeCount <<= 1;
+            bits++;
+        }
+        this.stripeShift = 32 - bits;
+        this.stripes = (Stripe<K, V>[]) new Stripe<?, ?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(now);
+        }
+    }
+
+    private Stripe<K, V> stripeFor(Object key) {
+        if (stripes.length == 1) {
+            return stripes[0];
+        }
+        int h = key == null ? 0 : key.hashCode();
+        h *= 0x9E3779B9;
+        return stripes[h >>> stripeShift];
+    }
+
+    /**
+     * index a cache object by its expire time
+     *
+     * @param key         cache key
+     * @param cacheObject cache object
+     */
+    void schedule(K key, CacheObject<V> cacheObject) {
+        long expireTime = cacheObject.getExpireTime();
+        if (expireTime == Long.MAX_VALUE || !(cacheObject instanceof CacheEntry)) {
+            // a cache object not created by a store has no timer node , it expires when read
+            return;
+        }
+        stripeFor(key).schedule(key, (CacheEntry<V>) cacheObject, expireTime);
+    }
+
+    /**
+     * drop a cache object from the index , it must not be scheduled afterwards
+     *
+     * @param key         cache key
+     * @param cacheObject cache object , null is ignored
+     */
+    void deschedule(K key, CacheObject<V> cacheObject) {
+        if (cacheObject instanceof CacheEntry) {
+            stripeFor(key).deschedule((CacheEntry<V>) cacheObject);
+        }
+    }
+
+    /**
+     * advance all stripes and collect expired cache objects , a stripe another thread is advancing
+     * is skipped
+     *
+     * @param now current time , unit is millisecond
+     * @return expired nodes , they are no longer indexed , null if none
+     */
+    List<Node<K, V>> tryAdvance(long now) {
+        List<Node<K, V>> expired = null;
+        for (Stripe<K, V> stripe : stripes) {
+            expired = stripe.tryAdvance(now, expired);
+        }
+        return expired;
+    }
+
+    /**
+     * advance the stripe of a key and collect its expired cache objects , it does nothing if another
+     * thread is advancing the stripe
+     *
+     * @param key cache key
+     * @param now current time , unit is millisecond
+     * @return expired nodes , they are no longer indexed , null if none
+     */
+    List<Node<K, V>> tryAdvance(K key, long now) {
+        return stripeFor(key).tryAdvance(now, null);
+    }
+
+    /**
+     * remove all cache objects from the index
+     */
+    void clear() {
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private static <K, V> void link(Node<K, V> sentinel, Node<K, V> node) {
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private static <K, V> void unlink(Node<K, V> node) {
+        if (node.next == null) {
+            return;
+        }
+        node.next.prev = node.prev;
+        node.prev.next = node.next;
+        node.next = null;
+        node.prev = null;
+    }
+
+    /**
+     * independently locked wheels of the keys of one stripe
+     */
+    private static final class Stripe<K, V> {
+
+        private final Node<K, V>[][] wheel;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * time the wheels have advanced to , written under the lock , read without it to skip
+         * advances within the same tick
+         */
+        private volatile long time;
+
+        @SuppressWarnings("unchecked")
+        private Stripe(long now) {
+            this.time = now;
+            this.wheel = (Node<K, V>[][]) new Node<?, ?>[BUCKETS.length][];
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = (Node<K, V>[]) new Node<?, ?>[BUCKETS[i]];
+                for (int j = 0; j < wheel[i].length; j++) {
+                    wheel[i][j] = Node.sentinel();
+                }
+            }
+        }
+
+        private void schedule(K key, CacheEntry<V> entry, long expireTime) {
+            lock.lock();
+            try {
+                if (entry.timerNode != null) {
+                    // already retired or scheduled
+                    return;
+                }
+                Node<K, V> node = new Node<>(key, entry, expireTime);
+                entry.timerNode = node;
+                link(findBucket(expireTime), node);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void deschedule(CacheEntry<V> entry) {
+            lock.lock();
+            try {
+                Object node = entry.timerNode;
+                if (node != null && node != RETIRED) {
+                    unlink((Node<K, V>) node);
+                }
+                entry.timerNode = RETIRED;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<Node<K, V>> tryAdvance(long now, List<Node<K, V>> expired) {
+            if (now >>> SHIFT[0] <= time >>> SHIFT[0] || !lock.tryLock()) {
+                // nothing expires within a tick of the first wheel
+                return expired;
+            }
+            try {
+                return advance(now, expired);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                for (Node<K, V>[] buckets : wheel) {
+                    for (Node<K, V> sentinel : buckets) {
+                        Node<K, V> node = sentinel.next;
+                        while (node != sentinel) {
+                            Node<K, V> next = node.next;
+                            node.prev = null;
+                            node.next = null;
+                            node.value.timerNode = RETIRED;
+                            node = next;
+                        }
+                        sentinel.prev = sentinel;
+                        sentinel.next = sentinel;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<Node<K, V>> advance(long now, List<Node<K, V>> expired) {
+            long previous = time;
+            if (now <= previous) {
+                return expired;
+            }
+            time = now;
+            for (int i = 0; i < SHIFT.length; i++) {
+                long previousTicks = previous >>> SHIFT[i];
+                long delta = (now >>> SHIFT[i]) - previousTicks;
+                if (delta <= 0L) {
+                    break;
+                }
+                expired = expire(i, previousTicks, delta, expired);
+            }
+            return expired;
+        }
+
+        /**
+         * collect the expired nodes of the buckets that time passed over , the others cascade to
+         * lower wheels
+         */
+        private List<Node<K, V>> expire(int index, long previousTicks, long delta, List<Node<K, V>> expired) {
+            Node<K, V>[] buckets = wheel[index];
+            int mask = buckets.length - 1;
+            int steps = (int) Math.min(1 + delta, buckets.length);
+            int start = (int) (previousTicks & mask);
+            int end = start + steps;
+            long now = time;
+            for (int i = start; i < end; i++) {
+                Node<K, V> sentinel = buckets[i & mask];
+                Node<K, V> node = sentinel.next;
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                while (node != sentinel) {
+                    Node<K, V> next = node.next;
+                    node.prev = null;
+                    node.next = null;
+                    if (node.time - now > 0) {
+                        link(findBucket(node.time), node);
+                    } else {
+                        // the owner decides whether to remove or schedule it again
+                        node.value.timerNode = null;
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(node);
+                    }
+                    node = next;
+                }
+            }
+            return expired;
+        }
+
+        private Node<K, V> findBucket(long expireTime) {
+            long duration = expireTime - time;
+            int length = wheel.length - 1;
+            for (int i = 0; i < length; i++) {
+                if (duration < SPANS[i + 1]) {
+                    long ticks = expireTime >>> SHIFT[i];
+                    return wheel[i][(int) (ticks & (wheel[i].length - 1))];
+                }
+            }
+            return wheel[length][0];
+        }
+
+    }
+
+    /**
+     * timer node of one cache object
+     */
+    static final class Node<K, V> {
+
+        final K key;
+
+        final CacheEntry<V> value;
+
+        final long time;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        private Node(K key, CacheEntry<V> value, long time) {
+            this.key = key;
+            this.value = value;
+            this.time = time;
+        }
+
+        private static <K, V> Node<K, V> sentinel() {
+            Node<K, V> sentinel = new Node<>(null, null, 0);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+    }
+
+}
@@ -0,0 +1,338 @@
+package org.ian.anole.cache;
+
+import java.util.HashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc cache store with w-tinylfu eviction by total weight , not thread safe
+ * <p>
+ * new cache objects enter a small lru window , objects leaving the window compete with the
+ * eldest object of the main space and only the one accessed more often by the frequency sketch
+ * stays , so one scan of cold keys can not flush the hot set . the main space is a segmented
+ * lru , objects hit in probation are promoted to protected
+ **/
+class TinyLfuCacheStore<K, V> implements CacheStore<K, V> {
+
+    private static final int WINDOW = 0;
+
+    private static final int PROBATION = 1;
+
+    private static final int PROTECTED = 2;
+
+    /**
+     * percent of the capacity that is the admission window
+     */
+    private static final int WINDOW_PERCENT = 1;
+
+    /**
+     * percent of the main space that is protected
+     */
+    private static final int PROTECTED_PERCENT = 80;
+
+    /**
+     * initial sketch capacity , the sketch grows with the cache object count
+     */
+    private static final int MAX_INITIAL_SKETCH = 1 << 16;
+
+    private final long maxWeight;
+
+    private final long maxWindow;
+
+    private final long maxProtected;
+
+    private final HashMap<K, Node<K, V>> data;
+
+    private final FrequencySketch<K> sketch;
+
+    private final Queue<K, V> window = new Queue<>();
+
+    private final Queue<K, V> probation = new Queue<>();
+
+    private final Queue<K, V> protect = new Queue<>();
+
+    private final BiConsumer<K, CacheObject<V>> evictionListener;
+
+    private long weightedSize;
+
+    /**
+     * tinylfu cache store
+     *
+     * @param maxWeight        max total weight , max cache object count if no weigher is used
+     * @param evictionListener notified of every cache object evicted by size , may be null
+     */
+    TinyLfuCacheStore(long maxWeight, BiConsumer<K, CacheObject<V>> evictionListener) {
+        this.maxWeight = Math.max(maxWeight, 1);
+        this.maxWindow = Math.max(1, this.maxWeight * WINDOW_PERCENT / 100);
+        this.maxProtected = (this.maxWeight - maxWindow) * PROTECTED_PERCENT / 100;
+        this.data = new HashMap<>();
+        this.sketch = new FrequencySketch<>((int) Math.min(this.maxWeight, MAX_INITIAL_SKETCH));
+        this.evictionListener = evictionListener;
+    }
+
+    @Override
+    public CacheObject<V> get(K key) {
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        onHit(node);
+        return node.value;
+    }
+
+    @Override
+    public CacheObject<V> peek(K key) {
+        Node<K, V> node = data.get(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public CacheObject<V> put(K key, CacheObject<V> cacheObject) {
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            CacheObject<V> previous = node.value;
+            int delta = cacheObject.weight() - previous.weight();
+            node.value = cacheObject;
+            queueOf(node).weight += delta;
+            weightedSize += delta;
+            onHit(node);
+            evict(null);
+            return previous;
+        }
+        sketch.increment(key);
+        node = new Node<>(key, cacheObject);
+        data.put(key, node);
+        if (data.size() > MAX_INITIAL_SKETCH) {
+            sketch.ensureCapacity(data.size());
+        }
+        weightedSize += cacheObject.weight();
+        node.queue = WINDOW;
+        window.add(node);
+        // objects leaving the window are the admission candidates , they sit at the probation tail
+        Node<K, V> candidate = null;
+        while (window.weight > maxWindow && window.head != null) {
+            Node<K, V> moved = window.head;
+            window.remove(moved);
+            moved.queue = PROBATION;
+            probation.add(moved);
+            if (candidate == null) {
+                candidate = moved;
+            }
+        }
+        evict(candidate);
+        return null;
+    }
+
+    @Override
+    public CacheObject<V> remove(K key) {
+        Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean remove(K key, CacheObject<V> cacheObject) {
+        Node<K, V> node = data.get(key);
+        if (node == null || node.value != cacheObject) {
+            return false;
+        }
+        data.remove(key);
+        unlink(node);
+        return true;
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, CacheObject<V>> action) {
+        for (Node<K, V> node : data.values()) {
+            action.accept(node.key, node.value);
+        }
+    }
+
+    @Override
+    public void clear() {
+        data.clear();
+        window.clear();
+        probation.clear();
+        protect.clear();
+        sketch.clear();
+        weightedSize = 0;
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    private void onHit(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToTail(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protect.add(node);
+                while (protect.weight > maxProtected && protect.head != node) {
+                    Node<K, V> demoted = protect.head;
+                    protect.remove(demoted);
+                    demoted.queue = PROBATION;
+                    probation.add(demoted);
+                }
+                break;
+            default:
+                protect.moveToTail(node);
+                break;
+        }
+    }
+
+    /**
+     * evict cache objects until the total weight is within the max weight , each candidate that
+     * just left the window competes with the eldest probation object
+     *
+     * @param candidate first object that just left the window , may be null
+     */
+    private void evict(Node<K, V> candidate) {
+        while (weightedSize > maxWeight) {
+            Node<K, V> victim = probation.head;
+            if (victim == candidate) {
+                victim = null;
+            }
+            Node<K, V> evicted;
+            if (candidate != null && victim != null) {
+                evicted = admit(candidate, victim) ? victim : candidate;
+            } else if (victim != null) {
+                evicted = victim;
+            } else if (candidate != null) {
+                evicted = candidate;
+            } else if (protect.head != null) {
+                evicted = protect.head;
+            } else {
+                evicted = window.head;
+            }
+            if (evicted == candidate) {
+                candidate = candidate.next;
+            }
+            data.remove(evicted.key);
+            unlink(evicted);
+            if (evictionListener != null) {
+                evictionListener.accept(evicted.key, evicted.value);
+            }
+        }
+    }
+
+    /**
+     * predicate candidate should replace the victim
+     */
+    private boolean admit(Node<K, V> candidate, Node<K, V> victim) {
+        if (candidate.value.weight() > maxWeight) {
+            return false;
+        }
+        return sketch.frequency(candidate.key) > sketch.frequency(victim.key);
+    }
+
+    private void unlink(Node<K, V> node) {
+        queueOf(node).remove(node);
+        weightedSize -= node.value.weight();
+    }
+
+    private Queue<K, V> queueOf(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protect;
+        }
+    }
+
+    /**
+     * access ordered node of one cache object
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private CacheObject<V> value;
+
+        private int queue;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        private Node(K key, CacheObject<V> value) {
+            this.key = key;
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * doubly linked lru queue , head is the eldest
+     */
+    private static final class Queue<K, V> {
+
+        private Node<K, V> head;
+
+        private Node<K, V> tail;
+
+        /**
+         * total weight of the queued nodes
+         */
+        private long weight;
+
+        private void add(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            weight += node.value.weight();
+        }
+
+        private void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            weight -= node.value.weight();
+        }
+
+        private void moveToTail(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                add(node);
+            }
+        }
+
+        private void clear() {
+            head = null;
+            tail = null;
+            weight = 0;
+        }
+
+    }
+
+}
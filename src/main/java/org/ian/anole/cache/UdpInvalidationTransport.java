@@ -0,0 +1,101 @@
+package org.ian.anole.cache;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc udp invalidation transport , a daemon thread receives datagrams and a lost datagram is not resent
+ **/
+class UdpInvalidationTransport implements InvalidationTransport {
+
+    /**
+     * max udp payload
+     */
+    private static final int MAX_DATAGRAM_LENGTH = 65507;
+
+    private final DatagramChannel channel;
+
+    private final List<InetSocketAddress> peers;
+
+    private final List<Consumer<byte[]>> receivers = new CopyOnWriteArrayList<>();
+
+    UdpInvalidationTransport(InetSocketAddress local, Collection<InetSocketAddress> peers) throws IOException {
+        this.peers = new ArrayList<>(peers);
+        this.channel = DatagramChannel.open();
+        try {
+            channel.bind(local);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        Thread receiver = new Thread(this::receive, "anole-invalidation-udp");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(byte[] message) {
+        if (message.length > MAX_DATAGRAM_LENGTH) {
+            throw new IllegalArgumentException("invalidation message too large : " + message.length);
+        }
+        synchronized (channel) {
+            for (InetSocketAddress peer : peers) {
+                try {
+                    channel.send(ByteBuffer.wrap(message), peer);
+                } catch (IOException e) {
+                    // best effort , the peer still drops the value by its expire time
+                }
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<byte[]> receiver) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<byte[]> receiver) {
+        receivers.remove(receiver);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM_LENGTH);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                byte[] message = new byte[buffer.remaining()];
+                buffer.get(message);
+                for (Consumer<byte[]> receiver : receivers) {
+                    receiver.accept(message);
+                }
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                // a bad datagram or receiver must not stop the receive loop
+            }
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package org.ian.anole.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc convert cache keys or values to bytes and back , used to keep them outside the heap
+ **/
+public interface ValueCodec<T> {
+
+    /**
+     * encode value to bytes
+     *
+     * @param value value , never null
+     * @return encoded bytes
+     */
+    byte[] encode(T value);
+
+    /**
+     * decode value from bytes , the buffer holds exactly the encoded bytes from position to limit
+     *
+     * @param buffer encoded bytes , must not be kept after return
+     * @return decoded value
+     */
+    T decode(ByteBuffer buffer);
+
+    /**
+     * utf-8 string codec
+     *
+     * @return string codec
+     */
+    static ValueCodec<String> utf8() {
+        return new ValueCodec<String>() {
+            @Override
+            public byte[] encode(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(ByteBuffer buffer) {
+                if (buffer.hasArray()) {
+                    return new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+                }
+                return StandardCharsets.UTF_8.decode(buffer).toString();
+            }
+        };
+    }
+
+    /**
+     * java serialization codec , works for any serializable value but is neither small nor fast
+     *
+     * @param <T> value type
+     * @return serialization codec
+     */
+    static <T extends Serializable> ValueCodec<T> serialization() {
+        return new ValueCodec<T>() {
+            @Override
+            public byte[] encode(T value) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return bytes.toByteArray();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T decode(ByteBuffer buffer) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return (T) in.readObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.ian.anole.cache;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc compute the weight of a cache value , a weighted cache container keeps the total weight
+ * of its cache values under the max weight
+ **/
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * weight of a cache value , e.g. its approximate heap bytes
+     *
+     * @param key   cache key
+     * @param value cache value
+     * @return weight , must not be negative
+     */
+    int weigh(K key, V value);
+
+}
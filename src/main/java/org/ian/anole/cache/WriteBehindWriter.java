@@ -0,0 +1,287 @@
+package org.ian.anole.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc cache writer that queues writes and flushes them in batches on a background thread
+ * <p>
+ * writes of one key are coalesced , only the last write or delete of a key is flushed . a batch
+ * that fails is queued again behind newer writes of its keys and retried with a doubling backoff ,
+ * no other flush runs while it backs off . after max attempts , or on close , a failing batch is
+ * dropped and given to the failure listener , or logged if there is none
+ * <p>
+ * a shutdown hook flushes the queue when the jvm exits , close removes it and stops the thread
+ **/
+class WriteBehindWriter<K, V> implements CacheWriter<K, V> {
+
+    private static final Logger LOGGER = Logger.getLogger(WriteBehindWriter.class.getName());
+
+    /**
+     * queued operation of a deleted key
+     */
+    private static final Object DELETE = new Object();
+
+    /**
+     * attempts of a batch before it is dropped
+     */
+    static final int MAX_ATTEMPTS = 8;
+
+    /**
+     * backoff before the first retry , unit is millisecond
+     */
+    static final long MIN_BACKOFF = 100;
+
+    /**
+     * max backoff between retries , unit is millisecond
+     */
+    static final long MAX_BACKOFF = 60_000;
+
+    private final CacheWriter<K, V> writer;
+
+    private final long delay;
+
+    private final int maxBatchSize;
+
+    private final WriteFailureListener<K, V> failureListener;
+
+    private final ScheduledExecutorService flusher;
+
+    private final Thread shutdownHook;
+
+    /**
+     * queued value or delete by key , guarded by this
+     */
+    private LinkedHashMap<K, Object> pending = new LinkedHashMap<>();
+
+    /**
+     * a delayed flush is scheduled , guarded by this
+     */
+    private boolean scheduled;
+
+    /**
+     * a failed batch waits for its retry , guarded by this
+     */
+    private boolean backingOff;
+
+    /**
+     * nano time of the retry , guarded by this
+     */
+    private long retryAt;
+
+    /**
+     * writes are refused , guarded by this
+     */
+    private boolean closed;
+
+    /**
+     * failed attempts of the queued writes in a row , only used on the flusher thread
+     */
+    private int attempts;
+
+    /**
+     * write behind writer
+     *
+     * @param writer          writer of the backing store
+     * @param delay           max time a write waits for others to share its batch , unit is millisecond
+     * @param maxBatchSize    queued key count that flushes without waiting for the delay
+     * @param failureListener notified of dropped batches , null to log them
+     */
+    WriteBehindWriter(CacheWriter<K, V> writer, long delay, int maxBatchSize, WriteFailureListener<K, V> failureListener) {
+        this.writer = writer;
+        this.delay = delay;
+        this.maxBatchSize = maxBatchSize;
+        this.failureListener = failureListener;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "anole-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shutdownHook = new Thread(this::close, "anole-write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    @Override
+    public void write(K key, V value) {
+        enqueue(key, value);
+    }
+
+    @Override
+    public void delete(K key) {
+        enqueue(key, DELETE);
+    }
+
+    private void enqueue(K key, Object operation) {
+        boolean full;
+        boolean schedule = false;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("write behind writer is closed");
+            }
+            // move the key behind the others , so a batch keeps the order of the last writes
+            pending.remove(key);
+            pending.put(key, operation);
+            if (backingOff) {
+                // the retry flushes these too
+                return;
+            }
+            full = pending.size() >= maxBatchSize;
+            if (!full && !scheduled) {
+                scheduled = true;
+                schedule = true;
+            }
+        }
+        if (full) {
+            flusher.execute(() -> flush(false, false));
+        } else if (schedule) {
+            flusher.schedule(() -> flush(false, false), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * flush the queued writes and wait until they are written or failed , a backoff is not waited for
+     */
+    void flushNow() {
+        try {
+            flusher.submit(() -> flush(true, false)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            // failures are retried by the flusher , a closed writer has nothing queued
+        }
+    }
+
+    /**
+     * refuse new writes , flush the queued ones once and stop the flusher thread , a failing batch is
+     * dropped and reported
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            flusher.submit(() -> flush(true, true)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // reported by the flush
+        } finally {
+            // delayed flushes and retries have nothing left to write
+            flusher.shutdownNow();
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // the jvm is already exiting
+            }
+        }
+    }
+
+    /**
+     * write the queued operations in batches , it only runs on the flusher thread
+     *
+     * @param force ignore a backoff
+     * @param last  drop a failed batch instead of retrying it
+     */
+    @SuppressWarnings("unchecked")
+    private void flush(boolean force, boolean last) {
+        for (; ; ) {
+            LinkedHashMap<K, Object> batch;
+            synchronized (this) {
+                if (backingOff && !force && System.nanoTime() - retryAt < 0) {
+                    // an earlier delayed flush , the retry is scheduled
+                    return;
+                }
+                scheduled = false;
+                backingOff = false;
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+            Map<K, V> writes = new LinkedHashMap<>();
+            List<K> deletes = new ArrayList<>();
+            for (Map.Entry<K, Object> entry : batch.entrySet()) {
+                if (entry.getValue() == DELETE) {
+                    deletes.add(entry.getKey());
+                } else {
+                    writes.put(entry.getKey(), (V) entry.getValue());
+                }
+            }
+            try {
+                if (!writes.isEmpty()) {
+                    writer.writeAll(writes);
+                }
+                if (!deletes.isEmpty()) {
+                    writer.deleteAll(deletes);
+                }
+                attempts = 0;
+            } catch (RuntimeException e) {
+                if (last || ++attempts >= MAX_ATTEMPTS) {
+                    attempts = 0;
+                    fail(writes, deletes, e);
+                    continue;
+                }
+                requeue(batch, backoff(attempts));
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param attempts failed attempts in a row
+     * @return backoff before the next attempt , unit is millisecond
+     */
+    private long backoff(int attempts) {
+        long backoff = Math.max(delay, MIN_BACKOFF);
+        for (int i = 1; i < attempts && backoff < MAX_BACKOFF; i++) {
+            backoff <<= 1;
+        }
+        return Math.min(backoff, MAX_BACKOFF);
+    }
+
+    private void requeue(LinkedHashMap<K, Object> batch, long backoff) {
+        synchronized (this) {
+            // newer writes of the same keys win , the failed ones go first
+            batch.keySet().removeAll(pending.keySet());
+            batch.putAll(pending);
+            pending = batch;
+            backingOff = true;
+            retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+        }
+        try {
+            flusher.schedule(() -> flush(false, false), backoff, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // closed , the batch is flushed by close
+        }
+    }
+
+    private void fail(Map<K, V> writes, List<K> deletes, RuntimeException cause) {
+        if (failureListener != null) {
+            try {
+                failureListener.onWriteFailure(writes, deletes, cause);
+                return;
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+            }
+        }
+        LOGGER.log(Level.WARNING, "write behind dropped " + writes.size() + " writes and " + deletes.size() + " deletes", cause);
+    }
+
+}
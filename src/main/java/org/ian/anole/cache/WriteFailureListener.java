@@ -0,0 +1,23 @@
+package org.ian.anole.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc notified when a write behind batch is given up , it is called on the write behind thread
+ **/
+@FunctionalInterface
+public interface WriteFailureListener<K, V> {
+
+    /**
+     * a batch failed on every attempt , or failed when the container was closed , and is dropped
+     *
+     * @param writes  dropped values by key
+     * @param deletes dropped deleted keys
+     * @param cause   exception of the last attempt
+     */
+    void onWriteFailure(Map<K, V> writes, Collection<K> deletes, Throwable cause);
+
+}
@@ -0,0 +1,75 @@
+package org.ian.anole.time;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc java flight recorder events of date utils , off unless the jvm runs with -Danole.jfr=true
+ * <p>
+ * the flag is a constant , so the hooks fold away when it is off . the event is recorded by
+ * JfrDateEvents , which is built from src/main/jfr on jdk 11 and later and loaded by reflection only
+ * when the flag is on and the jvm has jdk.jfr . parsed text may be user data , so only its length is
+ * recorded
+ **/
+final class DateEvents {
+
+    /**
+     * recorder of the events , null if events are off
+     */
+    private static final Recorder RECORDER = Boolean.getBoolean("anole.jfr") ? load() : null;
+
+    /**
+     * true if events are emitted
+     */
+    static final boolean ENABLED = RECORDER != null;
+
+    private DateEvents() {
+    }
+
+    private static Recorder load() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (Recorder) Class.forName("org.ian.anole.time.JfrDateEvents").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            // no jdk.jfr , or the jar was built without the jfr sources
+            return null;
+        }
+    }
+
+    /**
+     * start timing a parse
+     *
+     * @return parse event , null if it is not recorded
+     */
+    static Object beginParse() {
+        return ENABLED ? RECORDER.beginParse() : null;
+    }
+
+    /**
+     * commit a parse that is slower than the threshold
+     *
+     * @param event   parse event of begin parse , may be null
+     * @param pattern date pattern
+     * @param text    parsed text , only its length is recorded
+     * @param success false if the text did not match the pattern
+     */
+    static void endParse(Object event, String pattern, String text, boolean success) {
+        if (event != null) {
+            RECORDER.endParse(event, pattern, text == null ? 0 : text.length(), success);
+        }
+    }
+
+    /**
+     * records the event , it is passed as an object so that no jdk.jfr type leaks out
+     */
+    interface Recorder {
+
+        /**
+         * @return begun parse event , null if the event type is disabled
+         */
+        Object beginParse();
+
+        void endParse(Object event, String pattern, int length, boolean success);
+
+    }
+
+}
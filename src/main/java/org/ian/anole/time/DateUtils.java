@@ -1,15 +1,29 @@
 package org.ian.anole.time;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalQueries;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * @author Ian
  * @date 2022/10/11
- * @desc date utils
+ * @desc date utils , thread safe lenient parsing and formatting by shared immutable formatters
  **/
 public class DateUtils {
 
@@ -23,147 +37,415 @@ public class DateUtils {
 
     public static String YMDHMS = "yyyy-MM-dd HH:mm:ss";
 
+    /**
+     * parse result of text that does not match its pattern
+     */
+    private static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * max cached pattern count , other patterns are compiled per call
+     */
+    private static final int MAX_PATTERNS = 256;
+
+    private static final ConcurrentHashMap<String, CompiledPattern> PATTERNS = new ConcurrentHashMap<>();
+
+    /**
+     * time between two lookups of the default time zone for the current time , unit is nanosecond
+     */
+    private static final long ZONE_CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * default time zone of the current time , with the time it was looked up
+     */
+    private static volatile ZoneId nowZone = ZoneId.systemDefault();
+
+    private static volatile long nowZoneChecked = System.nanoTime();
+
     public static String now() {
         return nowStr(YMDHMS);
     }
 
     public static String nowStr(String formatter) {
-        SimpleDateFormat sdf = new SimpleDateFormat(formatter);
-        return sdf.format(new Date());
+        FixedDateFormat fixed = compile(formatter).fixed(nowZone());
+        if (fixed != null) {
+            return fixed.now();
+        }
+        return format(ZonedDateTime.now(nowZone()), formatter);
     }
 
     public static String getTimeOffsetStr(String target, TimeUnit timeUnit, int offset, String targetFormatter, String resultFormatter) {
-        SimpleDateFormat sdf = new SimpleDateFormat(targetFormatter);
-        Calendar calendar = Calendar.getInstance();
-        try {
-            calendar.setTime(sdf.parse(target));
-            switch (timeUnit) {
-                case MICROSECONDS:
-                    calendar.add(Calendar.MILLISECOND, offset);
-                    break;
-                case SECONDS:
-                    calendar.add(Calendar.SECOND, offset);
-                    break;
-                case MINUTES:
-                    calendar.add(Calendar.MINUTE, offset);
-                    break;
-                case HOURS:
-                    calendar.add(Calendar.HOUR_OF_DAY, offset);
-                    break;
-                case DAYS:
-                    calendar.add(Calendar.DAY_OF_MONTH, offset);
-                    break;
-            }
-        } catch (ParseException e) {
-            // ignore
+        long millis = parse(target, targetFormatter);
+        if (millis == INVALID) {
+            // ignore , the current time is formatted
+            return format(ZonedDateTime.now(nowZone()), resultFormatter);
         }
-        SimpleDateFormat resSdf = new SimpleDateFormat(resultFormatter);
-        return resSdf.format(calendar.getTime());
+        ZonedDateTime time = toDateTime(millis);
+        switch (timeUnit) {
+            case MICROSECONDS:
+                time = time.plus(offset, ChronoUnit.MILLIS);
+                break;
+            case SECONDS:
+                time = time.plusSeconds(offset);
+                break;
+            case MINUTES:
+                time = time.plusMinutes(offset);
+                break;
+            case HOURS:
+                time = time.plusHours(offset);
+                break;
+            case DAYS:
+                time = time.plusDays(offset);
+                break;
+        }
+        return format(time, resultFormatter);
     }
 
     public static String getMinuteOffsetStr(int minuteOffset, String formatter) {
-        SimpleDateFormat sdf = new SimpleDateFormat(formatter);
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.MINUTE, minuteOffset);
-        return sdf.format(calendar.getTime());
+        return format(ZonedDateTime.now(nowZone()).plusMinutes(minuteOffset), formatter);
     }
 
     public static String getHourOffsetStr(int hourOffset, String formatter) {
-        SimpleDateFormat sdf = new SimpleDateFormat(formatter);
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.HOUR_OF_DAY, hourOffset);
-        return sdf.format(calendar.getTime());
+        return format(ZonedDateTime.now(nowZone()).plusHours(hourOffset), formatter);
     }
 
     public static String getDayOffsetStr(int dayOffset, String formatter) {
-        SimpleDateFormat sdf = new SimpleDateFormat(formatter);
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.DAY_OF_MONTH, dayOffset);
-        return sdf.format(calendar.getTime());
+        return format(ZonedDateTime.now(nowZone()).plusDays(dayOffset), formatter);
     }
 
     public static String convertToStr(String from, String fromFormat, String toFormat) {
-        SimpleDateFormat fromSdf = new SimpleDateFormat(fromFormat);
-        SimpleDateFormat toSdf = new SimpleDateFormat(toFormat);
-        try {
-            return toSdf.format(fromSdf.parse(from));
-        } catch (ParseException e) {
+        long millis = parse(from, fromFormat);
+        if (millis == INVALID) {
             return null;
         }
+        return format(toDateTime(millis), toFormat);
     }
 
     public static long computeDistance(String from, String to, String formatter, TimeUnit timeUnit) {
-        SimpleDateFormat sdf = new SimpleDateFormat(formatter);
-        try {
-            Date dateFrom = sdf.parse(from);
-            Date dateTo = sdf.parse(to);
-            long time = dateTo.getTime() - dateFrom.getTime();
-            switch (timeUnit) {
-                case SECONDS:
-                    return time / 1000;
-                case MINUTES:
-                    return Math.round(Math.floor(Math.abs(time / (1000 * 60.0))));
-                case HOURS:
-                    return Math.round(Math.floor(Math.abs(time / (1000 * 60 * 60.0))));
-                case DAYS:
-                    return Math.round(Math.floor(Math.abs(time / (1000 * 60 * 60 * 24.0))));
-                default:
-                    return time;
-            }
-        } catch (ParseException e) {
+        long dateFrom = parse(from, formatter);
+        long dateTo = parse(to, formatter);
+        if (dateFrom == INVALID || dateTo == INVALID) {
             // return default
             return 0;
         }
+        long time = dateTo - dateFrom;
+        switch (timeUnit) {
+            case SECONDS:
+                return time / 1000;
+            case MINUTES:
+                return Math.round(Math.floor(Math.abs(time / (1000 * 60.0))));
+            case HOURS:
+                return Math.round(Math.floor(Math.abs(time / (1000 * 60 * 60.0))));
+            case DAYS:
+                return Math.round(Math.floor(Math.abs(time / (1000 * 60 * 60 * 24.0))));
+            default:
+                return time;
+        }
     }
 
     public static boolean before(String time1, String time2, String formatter) {
-        SimpleDateFormat sdf = new SimpleDateFormat(formatter);
-        try {
-            Date d1 = sdf.parse(time1);
-            Date d2 = sdf.parse(time2);
-            return d1.before(d2);
-        } catch (ParseException e) {
-            // ignore
-        }
-        return false;
+        long d1 = parse(time1, formatter);
+        long d2 = parse(time2, formatter);
+        return d1 != INVALID && d2 != INVALID && d1 < d2;
     }
 
     public static int compareASC(String time1, String time2, String formatter) {
-        SimpleDateFormat sdf = new SimpleDateFormat(formatter);
+        long d1 = parse(time1, formatter);
+        long d2 = parse(time2, formatter);
+        if (d1 == INVALID || d2 == INVALID) {
+            return 0;
+        }
+        return Long.compare(d1, d2);
+    }
+
+    public static int compareDESC(String time1, String time2, String formatter) {
+        long d1 = parse(time1, formatter);
+        long d2 = parse(time2, formatter);
+        if (d1 == INVALID || d2 == INVALID) {
+            return 0;
+        }
+        return Long.compare(d2, d1);
+    }
+
+    /**
+     * compiled pattern , cached until the cache is full
+     */
+    private static CompiledPattern compile(String pattern) {
+        CompiledPattern compiled = PATTERNS.get(pattern);
+        if (compiled != null) {
+            return compiled;
+        }
+        compiled = new CompiledPattern(pattern);
+        if (PATTERNS.size() < MAX_PATTERNS) {
+            CompiledPattern previous = PATTERNS.putIfAbsent(pattern, compiled);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * default time zone for the current time , TimeZone.getDefault copies the zone on every call , so
+     * it is looked up again only once the check interval passed
+     */
+    private static ZoneId nowZone() {
+        long now = System.nanoTime();
+        if (now - nowZoneChecked >= ZONE_CHECK_INTERVAL) {
+            nowZone = ZoneId.systemDefault();
+            nowZoneChecked = now;
+        }
+        return nowZone;
+    }
+
+    private static String format(ZonedDateTime time, String pattern) {
+        CompiledPattern compiled = compile(pattern);
+        FixedDateFormat fixed = compiled.fixed(time.getZone());
+        if (fixed != null && time.getYear() >= 1 && time.getYear() <= 9999) {
+            return fixed.format(time.toInstant().toEpochMilli());
+        }
+        return compiled.formatter.format(time);
+    }
+
+    private static ZonedDateTime toDateTime(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault());
+    }
+
+    /**
+     * parse text to epoch millis , a slow parse is recorded as a flight recorder event
+     *
+     * @return epoch millis , INVALID if the text does not match the pattern
+     */
+    private static long parse(String text, String pattern) {
+        Object event = DateEvents.beginParse();
+        long millis = INVALID;
         try {
-            Date d1 = sdf.parse(time1);
-            Date d2 = sdf.parse(time2);
-            long offset = d1.getTime() - d2.getTime();
-            if (offset == 0) {
-                return 0;
+            CompiledPattern compiled = compile(pattern);
+            text = compiled.skipLeadingSpace(text);
+            FixedDateFormat fixed = compiled.fixed(ZoneId.systemDefault());
+            // a lenient last field takes every following digit , such text is left to the formatter
+            if (fixed != null && (text.length() == fixed.length()
+                    || text.length() > fixed.length() && !Character.isDigit(text.charAt(fixed.length())))) {
+                millis = fixed.parse(text);
             }
-            if (offset < 0) {
-                return -1;
+            if (millis == INVALID) {
+                millis = toEpochMilli(compiled.parser.parse(text, new ParsePosition(0)));
             }
-            return 1;
-        } catch (ParseException e) {
+        } catch (DateTimeException | ArithmeticException e) {
             // ignore
+        } finally {
+            if (event != null) {
+                DateEvents.endParse(event, pattern, text, millis != INVALID);
+            }
         }
-        return 0;
+        return millis;
     }
 
-    public static int compareDESC(String time1, String time2, String formatter) {
-        SimpleDateFormat sdf = new SimpleDateFormat(formatter);
-        try {
-            Date d1 = sdf.parse(time1);
-            Date d2 = sdf.parse(time2);
-            long offset = d1.getTime() - d2.getTime();
-            if (offset == 0) {
-                return 0;
+    /**
+     * epoch millis of parsed fields , missing fields take the values of 1970-01-01 00:00:00
+     */
+    private static long toEpochMilli(TemporalAccessor parsed) {
+        if (parsed.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return Instant.from(parsed).toEpochMilli();
+        }
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        if (date == null) {
+            // partial dates are not resolved , e.g. a year and month without a day
+            date = LocalDate.of(Math.toIntExact(field(parsed, ChronoField.YEAR, 1970)), 1, 1)
+                    .plusMonths(field(parsed, ChronoField.MONTH_OF_YEAR, 1) - 1)
+                    .plusDays(field(parsed, ChronoField.DAY_OF_MONTH, 1) - 1);
+        }
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        if (time == null) {
+            time = LocalTime.MIDNIGHT;
+        }
+        // an ambiguous local time takes the later offset , as Calendar does
+        return LocalDateTime.of(date, time).atZone(ZoneId.systemDefault()).withLaterOffsetAtOverlap()
+                .toInstant().toEpochMilli();
+    }
+
+    private static long field(TemporalAccessor parsed, ChronoField field, long defaultValue) {
+        return parsed.isSupported(field) ? parsed.getLong(field) : defaultValue;
+    }
+
+    /**
+     * formatters of a pattern with its fixed date format , if the pattern has one
+     * <p>
+     * the pattern is compiled field by field instead of by appendPattern , so that it reads and writes
+     * numbers as SimpleDateFormat does : a number abutting the next number takes at most its pattern
+     * width , the last one takes all its digits , yy takes two digits as a year of the 100 years from 80
+     * years ago and other widths as they are , S is millisecond and years are written without a sign
+     */
+    private static final class CompiledPattern {
+
+        private final String pattern;
+
+        private final DateTimeFormatter formatter;
+
+        private final DateTimeFormatter parser;
+
+        /**
+         * the pattern starts with a field , spaces and tabs before it are skipped
+         */
+        private final boolean fieldFirst;
+
+        /**
+         * fixed date format in the last used zone , null if the pattern does not qualify
+         */
+        private volatile FixedDateFormat fixed;
+
+        private CompiledPattern(String pattern) {
+            this.pattern = pattern;
+            DateTimeFormatterBuilder printer = new DateTimeFormatterBuilder();
+            DateTimeFormatterBuilder parser = new DateTimeFormatterBuilder();
+            LocalDate centuryStart = LocalDate.now().minusYears(80);
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                int end = i + 1;
+                if (isLetter(c)) {
+                    end = runEnd(pattern, i);
+                    int count = end - i;
+                    TemporalField field = numberField(c, count);
+                    if (field == null) {
+                        // text fields , and numbers java.time reads alike
+                        String letters = pattern.substring(i, end);
+                        printer.appendPattern(letters);
+                        parser.parseLenient().appendPattern(letters).parseStrict();
+                    } else {
+                        boolean abutting = end < pattern.length() && isNumber(pattern.charAt(end), runEnd(pattern, end) - end);
+                        int width = Math.min(count, 19);
+                        if (c == 'y' && count == 2) {
+                            printer.appendValueReduced(field, 2, 2, centuryStart);
+                            if (abutting) {
+                                parser.parseStrict().appendValueReduced(field, 2, 2, centuryStart);
+                            } else {
+                                // lenient reads any width , only two digits are reduced
+                                parser.parseLenient().appendValueReduced(field, 2, 2, centuryStart).parseStrict();
+                            }
+                        } else {
+                            printer.appendValue(field, width, 19, SignStyle.NOT_NEGATIVE);
+                            if (abutting) {
+                                // a setting ends the previous number , so java.time does not reserve widths
+                                parser.parseStrict().appendValue(field, 1, width, SignStyle.NOT_NEGATIVE);
+                            } else {
+                                parser.parseStrict().appendValue(field, 1, 19, SignStyle.NORMAL);
+                            }
+                        }
+                    }
+                } else if (c == '\'') {
+                    StringBuilder literal = new StringBuilder();
+                    end = quoteEnd(pattern, i, literal);
+                    printer.appendLiteral(literal.toString());
+                    parser.appendLiteral(literal.toString());
+                } else {
+                    printer.appendLiteral(c);
+                    parser.appendLiteral(c);
+                }
+                i = end;
             }
-            if (offset < 0) {
-                return 1;
+            this.formatter = printer.toFormatter();
+            this.parser = parser.toFormatter().withResolverStyle(ResolverStyle.LENIENT);
+            this.fieldFirst = !pattern.isEmpty() && isLetter(pattern.charAt(0));
+            this.fixed = FixedDateFormat.of(pattern);
+        }
+
+        private FixedDateFormat fixed(ZoneId zone) {
+            FixedDateFormat f = fixed;
+            if (f != null && !f.getZone().equals(zone)) {
+                // the default time zone changed
+                f = FixedDateFormat.of(pattern, zone);
+                fixed = f;
             }
-            return -1;
-        } catch (ParseException e) {
-            // ignore
+            return f;
         }
-        return 0;
+
+        /**
+         * @return text without the spaces and tabs that SimpleDateFormat skips before the first field
+         */
+        private String skipLeadingSpace(String text) {
+            int start = 0;
+            while (fieldFirst && start < text.length() && (text.charAt(start) == ' ' || text.charAt(start) == '\t')) {
+                start++;
+            }
+            return start == 0 ? text : text.substring(start);
+        }
+
+        private static boolean isLetter(char c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+        }
+
+        private static int runEnd(String pattern, int start) {
+            int end = start + 1;
+            while (end < pattern.length() && pattern.charAt(end) == pattern.charAt(start)) {
+                end++;
+            }
+            return end;
+        }
+
+        /**
+         * @return end of the quoted literal at start , its text is appended to literal
+         */
+        private static int quoteEnd(String pattern, int start, StringBuilder literal) {
+            if (start + 1 < pattern.length() && pattern.charAt(start + 1) == '\'') {
+                literal.append('\'');
+                return start + 2;
+            }
+            for (int i = start + 1; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c != '\'') {
+                    literal.append(c);
+                } else if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    literal.append(c);
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            }
+            throw new IllegalArgumentException("unterminated quote in pattern : " + pattern);
+        }
+
+        /**
+         * @return field of a number that is compiled here , null if the letters are left to appendPattern
+         */
+        private static TemporalField numberField(char c, int count) {
+            switch (c) {
+                case 'y':
+                    return ChronoField.YEAR_OF_ERA;
+                case 'M':
+                case 'L':
+                    return count <= 2 ? ChronoField.MONTH_OF_YEAR : null;
+                case 'd':
+                    return ChronoField.DAY_OF_MONTH;
+                case 'D':
+                    return ChronoField.DAY_OF_YEAR;
+                case 'u':
+                    return ChronoField.DAY_OF_WEEK;
+                case 'H':
+                    return ChronoField.HOUR_OF_DAY;
+                case 'k':
+                    return ChronoField.CLOCK_HOUR_OF_DAY;
+                case 'K':
+                    return ChronoField.HOUR_OF_AMPM;
+                case 'h':
+                    return ChronoField.CLOCK_HOUR_OF_AMPM;
+                case 'm':
+                    return ChronoField.MINUTE_OF_HOUR;
+                case 's':
+                    return ChronoField.SECOND_OF_MINUTE;
+                case 'S':
+                    return ChronoField.MILLI_OF_SECOND;
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * @return true if SimpleDateFormat reads the letters as a number
+         */
+        private static boolean isNumber(char c, int count) {
+            return numberField(c, count) != null || c == 'Y' || c == 'w' || c == 'W' || c == 'F';
+        }
+
     }
 
     public static void main(String[] args){
@@ -0,0 +1,555 @@
+package org.ian.anole.time;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc fast parser and formatter of fixed width digit patterns , immutable and thread safe
+ * <p>
+ * a pattern qualifies if it only has the fields yyyy , MM , dd , HH , mm , ss and SSS , each at most
+ * once , between literals that are not letters , e.g. the patterns of {@link DateUtils} . text is
+ * parsed to epoch millis and epoch millis are formatted into a char array or string builder by plain
+ * arithmetic , without Date , Calendar , exceptions or allocation . the offset of the zone is cached
+ * between its transitions , and the text of the current time is cached until its last field changes
+ **/
+public final class FixedDateFormat {
+
+    /**
+     * parse result of text that does not match the pattern or is not a valid date
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final byte LITERAL = 0;
+
+    private static final byte YEAR = 1;
+
+    private static final byte MONTH = 2;
+
+    private static final byte DAY = 3;
+
+    private static final byte HOUR = 4;
+
+    private static final byte MINUTE = 5;
+
+    private static final byte SECOND = 6;
+
+    private static final byte MILLI = 7;
+
+    /**
+     * digit count of every field
+     */
+    private static final int[] WIDTHS = {0, 4, 2, 2, 2, 2, 2, 3};
+
+    /**
+     * millis of every field , fields above the day are treated as days
+     */
+    private static final long[] UNITS = {0, 86400000, 86400000, 86400000, 3600000, 60000, 1000, 1};
+
+    private static final long SECONDS_PER_DAY = 86400;
+
+    /**
+     * a local time this far from a transition has one offset , no transition moves the clock further
+     */
+    private static final long TRANSITION_MARGIN = 2 * SECONDS_PER_DAY;
+
+    /**
+     * create a fixed date format in the default time zone
+     *
+     * @param pattern date pattern
+     * @return fixed date format , null if the pattern does not qualify
+     */
+    public static FixedDateFormat of(String pattern) {
+        return of(pattern, ZoneId.systemDefault());
+    }
+
+    /**
+     * create a fixed date format
+     *
+     * @param pattern date pattern
+     * @param zone    time zone of the local times
+     * @return fixed date format , null if the pattern does not qualify
+     */
+    public static FixedDateFormat of(String pattern, ZoneId zone) {
+        Objects.requireNonNull(pattern, "pattern");
+        Objects.requireNonNull(zone, "zone");
+        int length = pattern.length();
+        byte[] kinds = new byte[length];
+        int[] starts = new int[MILLI + 1];
+        Arrays.fill(starts, -1);
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (!Character.isLetter(c)) {
+                if (c == '\'') {
+                    return null;
+                }
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < length && pattern.charAt(end) == c) {
+                end++;
+            }
+            byte kind = kind(c, end - i);
+            if (kind == LITERAL || starts[kind] >= 0) {
+                return null;
+            }
+            starts[kind] = i;
+            Arrays.fill(kinds, i, end, kind);
+            i = end;
+        }
+        return new FixedDateFormat(pattern, zone, kinds, starts);
+    }
+
+    private static byte kind(char c, int width) {
+        switch (c) {
+            case 'y':
+                return width == 4 ? YEAR : LITERAL;
+            case 'M':
+                return width == 2 ? MONTH : LITERAL;
+            case 'd':
+                return width == 2 ? DAY : LITERAL;
+            case 'H':
+                return width == 2 ? HOUR : LITERAL;
+            case 'm':
+                return width == 2 ? MINUTE : LITERAL;
+            case 's':
+                return width == 2 ? SECOND : LITERAL;
+            case 'S':
+                return width == 3 ? MILLI : LITERAL;
+            default:
+                return LITERAL;
+        }
+    }
+
+    private final String pattern;
+
+    private final ZoneId zone;
+
+    private final ZoneRules rules;
+
+    /**
+     * field of every position of the pattern
+     */
+    private final byte[] kinds;
+
+    /**
+     * index of every field in the pattern , -1 if the field is missing
+     */
+    private final int[] starts;
+
+    /**
+     * offset of the zone around the last used instant
+     */
+    private volatile OffsetWindow window;
+
+    /**
+     * millis of the smallest field , the text stays the same within such a unit of local time
+     */
+    private final long granularity;
+
+    /**
+     * text of the current time , null until now is called
+     */
+    private volatile Timestamp current;
+
+    private FixedDateFormat(String pattern, ZoneId zone, byte[] kinds, int[] starts) {
+        this.pattern = pattern;
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.kinds = kinds;
+        this.starts = starts;
+        this.window = OffsetWindow.around(rules, Instant.now().getEpochSecond());
+        long unit = UNITS[YEAR];
+        for (byte kind = YEAR; kind <= MILLI; kind++) {
+            if (starts[kind] >= 0) {
+                unit = UNITS[kind];
+            }
+        }
+        this.granularity = unit;
+    }
+
+    /**
+     * date pattern
+     *
+     * @return pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * time zone of the local times
+     *
+     * @return zone
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * length of every parsed or formatted text
+     *
+     * @return text length
+     */
+    public int length() {
+        return kinds.length;
+    }
+
+    /**
+     * parse text to epoch millis
+     *
+     * @param text date text , characters after the pattern length are ignored
+     * @return epoch millis , INVALID if the text does not match
+     */
+    public long parse(CharSequence text) {
+        return parse(text, 0);
+    }
+
+    /**
+     * parse text at an offset to epoch millis
+     *
+     * @param text   text that holds a date , characters after the pattern length are ignored
+     * @param offset index of the date in the text
+     * @return epoch millis , INVALID if the text does not match
+     */
+    public long parse(CharSequence text, int offset) {
+        int length = kinds.length;
+        if (offset < 0 || offset > text.length() - length) {
+            return INVALID;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(offset + i);
+            if (kinds[i] == LITERAL ? c != pattern.charAt(i) : c < '0' || c > '9') {
+                return INVALID;
+            }
+        }
+        int year = number(text, offset, YEAR, 1970);
+        int month = number(text, offset, MONTH, 1);
+        int day = number(text, offset, DAY, 1);
+        int hour = number(text, offset, HOUR, 0);
+        int minute = number(text, offset, MINUTE, 0);
+        int second = number(text, offset, SECOND, 0);
+        int milli = number(text, offset, MILLI, 0);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return INVALID;
+        }
+        long local = daysFromCivil(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+        return toEpochSecond(local) * 1000 + milli;
+    }
+
+    /**
+     * format epoch millis into a char array
+     *
+     * @param millis epoch millis , its year must be within 1 and 9999
+     * @param buffer target array
+     * @param offset index of the first formatted char
+     * @return index after the last formatted char
+     */
+    public int format(long millis, char[] buffer, int offset) {
+        if (offset < 0 || offset > buffer.length - kinds.length) {
+            throw new IndexOutOfBoundsException("no room for " + kinds.length + " chars at " + offset);
+        }
+        write(millis, buffer, null, offset);
+        return offset + kinds.length;
+    }
+
+    /**
+     * append formatted epoch millis to a string builder
+     *
+     * @param millis  epoch millis , its year must be within 1 and 9999
+     * @param builder target builder
+     * @return the builder
+     */
+    public StringBuilder format(long millis, StringBuilder builder) {
+        int start = builder.length();
+        builder.setLength(start + kinds.length);
+        try {
+            write(millis, null, builder, start);
+        } catch (IllegalArgumentException e) {
+            builder.setLength(start);
+            throw e;
+        }
+        return builder;
+    }
+
+    /**
+     * format epoch millis
+     *
+     * @param millis epoch millis , its year must be within 1 and 9999
+     * @return formatted text
+     */
+    public String format(long millis) {
+        char[] buffer = new char[kinds.length];
+        write(millis, buffer, null, 0);
+        return new String(buffer);
+    }
+
+    /**
+     * format the current time , the same string is returned until the text changes , e.g. for a
+     * second per second and for a day per day . it is replaced without locking when it rolls over
+     *
+     * @return formatted current time
+     */
+    public String now() {
+        long millis = System.currentTimeMillis();
+        Timestamp t = current;
+        if (t != null && millis >= t.from && millis < t.until) {
+            return t.text;
+        }
+        // racing threads may each format , any of their timestamps is right
+        t = timestamp(millis);
+        current = t;
+        return t.text;
+    }
+
+    @Override
+    public String toString() {
+        return "FixedDateFormat{" + pattern + ", " + zone + '}';
+    }
+
+    /**
+     * write the formatted chars into the buffer , or into the builder if the buffer is null
+     */
+    private void write(long millis, char[] buffer, StringBuilder builder, int offset) {
+        long epochSecond = Math.floorDiv(millis, 1000);
+        int milli = (int) Math.floorMod(millis, 1000L);
+        long local = epochSecond + offsetAt(epochSecond);
+        long days = Math.floorDiv(local, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(local, SECONDS_PER_DAY);
+        // civil from days , the era is 400 years long
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999) {
+            throw new IllegalArgumentException("year out of range : " + year);
+        }
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == LITERAL) {
+                put(buffer, builder, offset + i, pattern.charAt(i));
+            }
+        }
+        digits(buffer, builder, offset, YEAR, (int) year);
+        digits(buffer, builder, offset, MONTH, month);
+        digits(buffer, builder, offset, DAY, day);
+        digits(buffer, builder, offset, HOUR, hour);
+        digits(buffer, builder, offset, MINUTE, minute);
+        digits(buffer, builder, offset, SECOND, second);
+        digits(buffer, builder, offset, MILLI, milli);
+    }
+
+    /**
+     * value of a field in checked digits
+     */
+    private int number(CharSequence text, int offset, byte kind, int defaultValue) {
+        int start = starts[kind];
+        if (start < 0) {
+            return defaultValue;
+        }
+        int value = 0;
+        for (int i = offset + start, end = i + WIDTHS[kind]; i < end; i++) {
+            value = value * 10 + text.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    /**
+     * write a field as zero padded digits
+     */
+    private void digits(char[] buffer, StringBuilder builder, int offset, byte kind, int value) {
+        int start = starts[kind];
+        if (start < 0) {
+            return;
+        }
+        for (int i = offset + start + WIDTHS[kind] - 1; i >= offset + start; i--) {
+            put(buffer, builder, i, (char) ('0' + value % 10));
+            value /= 10;
+        }
+    }
+
+    private static void put(char[] buffer, StringBuilder builder, int index, char c) {
+        if (buffer != null) {
+            buffer[index] = c;
+        } else {
+            builder.setCharAt(index, c);
+        }
+    }
+
+    /**
+     * text of an instant with the range of instants that have the same text
+     */
+    private Timestamp timestamp(long millis) {
+        OffsetWindow w = windowAt(Math.floorDiv(millis, 1000));
+        long offset = w.offset * 1000L;
+        long from = millis - Math.floorMod(millis + offset, granularity);
+        long until = from + granularity;
+        // the offset is only known up to the transitions around it
+        if (w.from != Long.MIN_VALUE) {
+            from = Math.max(from, w.from * 1000);
+        }
+        if (w.until != Long.MAX_VALUE) {
+            until = Math.min(until, w.until * 1000);
+        }
+        return new Timestamp(from, until, format(millis));
+    }
+
+    /**
+     * offset of the zone at an instant
+     *
+     * @param epochSecond epoch second
+     * @return offset seconds
+     */
+    private int offsetAt(long epochSecond) {
+        return windowAt(epochSecond).offset;
+    }
+
+    /**
+     * offset window that holds an instant
+     */
+    private OffsetWindow windowAt(long epochSecond) {
+        OffsetWindow w = window;
+        if (epochSecond >= w.from && epochSecond < w.until) {
+            return w;
+        }
+        w = OffsetWindow.around(rules, epochSecond);
+        window = w;
+        return w;
+    }
+
+    /**
+     * epoch second of a local time , an ambiguous local time takes the later offset as Calendar does
+     *
+     * @param local local epoch second
+     * @return epoch second
+     */
+    private long toEpochSecond(long local) {
+        OffsetWindow w = window;
+        long epochSecond = local - w.offset;
+        if (epochSecond >= w.safeFrom && epochSecond < w.safeUntil) {
+            return epochSecond;
+        }
+        epochSecond = LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC).atZone(zone)
+                .withLaterOffsetAtOverlap().toEpochSecond();
+        window = OffsetWindow.around(rules, epochSecond);
+        return epochSecond;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * days since 1970-01-01 of a proleptic gregorian date
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * formatted text of the instants in [from , until)
+     */
+    private static final class Timestamp {
+
+        private final long from;
+
+        private final long until;
+
+        private final String text;
+
+        private Timestamp(long from, long until, String text) {
+            this.from = from;
+            this.until = until;
+            this.text = text;
+        }
+
+    }
+
+    /**
+     * offset of a zone between two transitions
+     */
+    private static final class OffsetWindow {
+
+        /**
+         * first epoch second of the offset
+         */
+        private final long from;
+
+        /**
+         * epoch second of the next transition
+         */
+        private final long until;
+
+        /**
+         * local times that map into [safe from , safe until) by the offset are unambiguous
+         */
+        private final long safeFrom;
+
+        private final long safeUntil;
+
+        private final int offset;
+
+        private OffsetWindow(long from, long until, int offset) {
+            this.from = from;
+            this.until = until;
+            this.offset = offset;
+            this.safeFrom = from == Long.MIN_VALUE ? Long.MIN_VALUE : from + TRANSITION_MARGIN;
+            this.safeUntil = until == Long.MAX_VALUE ? Long.MAX_VALUE : until - TRANSITION_MARGIN;
+        }
+
+        private static OffsetWindow around(ZoneRules rules, long epochSecond) {
+            if (rules.isFixedOffset()) {
+                return new OffsetWindow(Long.MIN_VALUE, Long.MAX_VALUE, rules.getOffset(Instant.EPOCH).getTotalSeconds());
+            }
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            ZoneOffset offset = rules.getOffset(instant);
+            ZoneOffsetTransition previous = rules.previousTransition(instant);
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            long from = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+            if (from > epochSecond || previous != null && !previous.getOffsetAfter().equals(offset)) {
+                // the instant is the transition itself
+                from = epochSecond;
+            }
+            long until = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+            return new OffsetWindow(from, until, offset.getTotalSeconds());
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package org.ian.anole.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc java flight recorder events of cache containers , loaded by CacheEvents only on a jvm with jdk.jfr
+ **/
+final class JfrCacheEvents implements CacheEvents.Recorder {
+
+    @Override
+    public Object beginLoad() {
+        LoadEvent event = new LoadEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endLoad(Object event, Object key, Object result, Throwable failure) {
+        LoadEvent loadEvent = (LoadEvent) event;
+        loadEvent.end();
+        if (!loadEvent.shouldCommit()) {
+            return;
+        }
+        if (key instanceof Collection) {
+            Collection<?> keys = (Collection<?>) key;
+            loadEvent.keyClass = keys.isEmpty() ? null : className(keys.iterator().next());
+            loadEvent.keyCount = keys.size();
+            loadEvent.valueCount = result instanceof Map ? ((Map<?, ?>) result).size() : 0;
+        } else {
+            loadEvent.keyClass = className(key);
+            loadEvent.keyCount = 1;
+            loadEvent.valueCount = result == null ? 0 : 1;
+        }
+        loadEvent.failure = failure == null ? null : failure.getClass().getName();
+        loadEvent.commit();
+    }
+
+    @Override
+    public Object beginEvictions() {
+        EvictionEvent event = new EvictionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void evicted(Object batch, long weight) {
+        EvictionEvent event = (EvictionEvent) batch;
+        if (event == null) {
+            event = new EvictionEvent();
+            event.count = 1;
+            event.weight = weight;
+            event.commit();
+            return;
+        }
+        event.count++;
+        event.weight += weight;
+    }
+
+    @Override
+    public void endEvictions(Object batch) {
+        EvictionEvent event = (EvictionEvent) batch;
+        if (event.count > 0) {
+            event.end();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void expiredRead(Object key, long overdue) {
+        ExpiredReadEvent event = new ExpiredReadEvent();
+        if (event.shouldCommit()) {
+            event.keyClass = className(key);
+            event.overdue = overdue;
+            event.commit();
+        }
+    }
+
+    private static String className(Object o) {
+        return o == null ? null : o.getClass().getName();
+    }
+
+    @Name("org.ian.anole.CacheLoad")
+    @Label("Cache Load")
+    @Category({"Anole", "Cache"})
+    @Description("fallback load of a cache container that is slower than the threshold")
+    @Threshold("10 ms")
+    static final class LoadEvent extends Event {
+
+        @Label("Key Class")
+        String keyClass;
+
+        @Label("Key Count")
+        int keyCount;
+
+        @Label("Value Count")
+        @Description("loaded cache values , a miss of a single load is zero")
+        int valueCount;
+
+        @Label("Failure")
+        @Description("exception class of the fallback , null if it returned")
+        String failure;
+
+    }
+
+    @Name("org.ian.anole.CacheEviction")
+    @Label("Cache Eviction")
+    @Category({"Anole", "Cache"})
+    @Description("cache objects evicted by size during one write")
+    static final class EvictionEvent extends Event {
+
+        @Label("Count")
+        int count;
+
+        @Label("Weight")
+        long weight;
+
+    }
+
+    @Name("org.ian.anole.CacheExpiredRead")
+    @Label("Cache Expired Read")
+    @Category({"Anole", "Cache"})
+    @Description("read that found an expired cache value")
+    static final class ExpiredReadEvent extends Event {
+
+        @Label("Key Class")
+        String keyClass;
+
+        @Label("Overdue")
+        @Timespan(Timespan.MILLISECONDS)
+        long overdue;
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.ian.anole.time;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc java flight recorder events of date utils , loaded by DateEvents only on a jvm with jdk.jfr
+ **/
+final class JfrDateEvents implements DateEvents.Recorder {
+
+    @Override
+    public Object beginParse() {
+        ParseEvent event = new ParseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endParse(Object event, String pattern, int length, boolean success) {
+        ParseEvent parseEvent = (ParseEvent) event;
+        parseEvent.end();
+        if (parseEvent.shouldCommit()) {
+            parseEvent.pattern = pattern;
+            parseEvent.length = length;
+            parseEvent.success = success;
+            parseEvent.commit();
+        }
+    }
+
+    @Name("org.ian.anole.DateParse")
+    @Label("Date Parse")
+    @Category({"Anole", "Time"})
+    @Description("date utils parse that is slower than the threshold")
+    @Threshold("1 ms")
+    static final class ParseEvent extends Event {
+
+        @Label("Pattern")
+        String pattern;
+
+        @Label("Length")
+        @Description("length of the parsed text , the text itself may be user data")
+        int length;
+
+        @Label("Success")
+        boolean success;
+
+    }
+
+}
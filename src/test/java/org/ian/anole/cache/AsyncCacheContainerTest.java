@@ -0,0 +1,48 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc an async miss is recorded and loaded once , as a sync miss is
+ **/
+public class AsyncCacheContainerTest {
+
+    @Test
+    public void asyncMissIsRecordedOnce() throws Exception {
+        CacheContainer<String, String> container = CacheContainer.<String, String>builder()
+                .size(10)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("v", container.async().get("k", k -> {
+            loads.incrementAndGet();
+            return "v";
+        }).get());
+        assertEquals("v", container.async().get("k", k -> "other").get());
+        CacheStats stats = container.stats();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getLoadSuccessCount());
+    }
+
+    @Test
+    public void refreshCompletesWithTheFreshValue() throws Exception {
+        CacheContainer<String, String> container = CacheContainer.<String, String>builder()
+                .size(10)
+                .executor(Runnable::run)
+                .build();
+        container.addCacheValue("k", "old");
+        assertEquals("new", container.refreshCacheValue("k", k -> "new").get());
+        container.asyncRefreshCacheValue("k", k -> "newer");
+        assertEquals("newer", container.getCacheValue("k"));
+    }
+
+}
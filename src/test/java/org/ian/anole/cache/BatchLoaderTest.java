@@ -0,0 +1,158 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc concurrent loads are merged into bulk loads that are dispatched when full or late
+ **/
+public class BatchLoaderTest {
+
+    private final List<Set<String>> calls = new CopyOnWriteArrayList<>();
+
+    private final Function<Set<String>, Map<String, String>> bulkLoader = keys -> {
+        calls.add(new HashSet<>(keys));
+        Map<String, String> result = new HashMap<>();
+        for (String key : keys) {
+            if (!key.startsWith("missing")) {
+                result.put(key, "v" + key);
+            }
+        }
+        return result;
+    };
+
+    @Test
+    public void concurrentMissesMergeIntoOneBulkCall() throws Exception {
+        int threads = 4;
+        // a full batch is dispatched at once , long before the max delay
+        BatchLoader<String, String> loader = BatchLoader.of(bulkLoader, threads, TimeUnit.MINUTES.toMillis(1));
+        CacheContainer<String, String> container = CacheContainer.<String, String>builder().size(10).build();
+        CountDownLatch start = new CountDownLatch(1);
+        List<String> values = new CopyOnWriteArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String key = "k" + i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                values.add(container.getCacheValue(key, loader));
+            });
+            readers.add(thread);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : readers) {
+            thread.join();
+        }
+        assertTrue(System.nanoTime() - begin < TimeUnit.SECONDS.toNanos(30));
+        assertEquals(1, calls.size());
+        assertEquals(new HashSet<>(Arrays.asList("k0", "k1", "k2", "k3")), calls.get(0));
+        assertEquals(new HashSet<>(Arrays.asList("vk0", "vk1", "vk2", "vk3")), new HashSet<>(values));
+        assertEquals("vk2", container.getCacheValue("k2"));
+    }
+
+    @Test
+    public void lonelyLoadIsDispatchedAfterTheMaxDelay() {
+        BatchLoader<String, String> loader = BatchLoader.of(bulkLoader, 100, 50);
+        long begin = System.nanoTime();
+        assertEquals("va", loader.apply("a"));
+        assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    public void bulkLoaderFailureReachesEveryWaiter() throws Exception {
+        int threads = 3;
+        BatchLoader<String, String> loader = BatchLoader.of(keys -> {
+            calls.add(keys);
+            throw new IllegalStateException("down");
+        }, threads, TimeUnit.MINUTES.toMillis(1));
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String key = "k" + i;
+            Thread thread = new Thread(() -> {
+                try {
+                    loader.apply(key);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            waiters.add(thread);
+            thread.start();
+        }
+        for (Thread thread : waiters) {
+            thread.join();
+        }
+        assertEquals(1, calls.size());
+        assertEquals(threads, failures.size());
+        for (Throwable failure : failures) {
+            assertTrue(failure instanceof IllegalStateException);
+            assertEquals("down", failure.getMessage());
+        }
+    }
+
+    @Test
+    public void keysMissingFromTheResultAreNull() {
+        BatchLoader<String, String> loader = BatchLoader.of(bulkLoader, 10, 0);
+        assertNull(loader.apply("missing"));
+        Map<String, String> loaded = loader.loadAll(Arrays.asList("a", "missing1", "b"));
+        assertEquals(2, loaded.size());
+        assertEquals("va", loaded.get("a"));
+        assertEquals("vb", loaded.get("b"));
+        assertFalse(loaded.containsKey("missing1"));
+    }
+
+    @Test
+    public void loadAllSplitsByTheMaxBatchSize() {
+        BatchLoader<String, String> loader = BatchLoader.of(bulkLoader, 2, 0);
+        Map<String, String> loaded = loader.loadAll(Arrays.asList("a", "b", "c", "d", "e"));
+        assertEquals(5, loaded.size());
+        assertEquals(3, calls.size());
+        for (Set<String> call : calls) {
+            assertTrue(call.size() <= 2);
+        }
+    }
+
+    @Test
+    public void loadAllJoinsTheOpenBatch() throws Exception {
+        BatchLoader<String, String> loader = BatchLoader.of(bulkLoader, 3, TimeUnit.MINUTES.toMillis(1));
+        List<String> values = new CopyOnWriteArrayList<>();
+        Thread leader = new Thread(() -> values.add(loader.apply("a")));
+        leader.start();
+        // the leader waits for others to fill its batch
+        while (leader.getState() != Thread.State.TIMED_WAITING) {
+            Thread.yield();
+        }
+        Map<String, String> loaded = loader.loadAll(Arrays.asList("b", "c"));
+        leader.join();
+        assertEquals(1, calls.size());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), calls.get(0));
+        assertEquals("vb", loaded.get("b"));
+        assertEquals("vc", loaded.get("c"));
+        assertEquals(Arrays.asList("va"), values);
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.ian.anole.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc a saved container is restored with the expire time it had left , entry by entry
+ **/
+public class CacheSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripCarriesTheRemainingExpireTime() throws Exception {
+        AtomicLong time = new AtomicLong();
+        CacheContainer<String, String> saved = CacheContainer.<String, String>builder()
+                .size(10)
+                .expire(10000)
+                .ticker(time::get)
+                .build();
+        saved.addCacheValue("a", "va");
+        time.set(5000);
+        saved.addCacheValue("b", "vb");
+        time.set(12000);
+        Path path = folder.newFile("cache.snapshot").toPath();
+        // a expired before it was saved , b has 3000ms left
+        assertEquals(1, saved.saveSnapshot(path, ValueCodec.utf8(), ValueCodec.utf8()));
+
+        AtomicLong restoredTime = new AtomicLong();
+        CacheContainer<String, String> restored = CacheContainer.<String, String>builder()
+                .size(10)
+                .expire(60000)
+                .ticker(restoredTime::get)
+                .proactiveExpire(true)
+                .build();
+        restored.restoreSnapshot(path, ValueCodec.utf8(), ValueCodec.utf8());
+        assertNull(restored.getCacheValue("a"));
+        assertEquals("vb", restored.getCacheValue("b"));
+        restoredTime.set(2000);
+        assertEquals("vb", restored.getCacheValue("b"));
+        restoredTime.set(3001);
+        restored.cleanUp();
+        // the drained snapshot does not bring it back
+        assertNull(restored.getCacheValue("b"));
+    }
+
+    @Test
+    public void snapshotIsDrainedByTakesAndDiscards() throws Exception {
+        Path path = folder.newFile("cache.snapshot").toPath();
+        List<String> keys = new ArrayList<>();
+        List<CacheObject<String>> cacheObjects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            keys.add("k" + i);
+            cacheObjects.add(new CacheObject<>("v" + i, -1, 0));
+        }
+        long now = System.currentTimeMillis();
+        assertEquals(3, CacheSnapshot.write(path, keys, cacheObjects, ValueCodec.utf8(), ValueCodec.utf8(), 0, now));
+
+        CacheSnapshot<String, String> snapshot = CacheSnapshot.open(path, ValueCodec.utf8(), ValueCodec.utf8(), now);
+        CacheSnapshot.Restored<String> restored = snapshot.take("k0", now);
+        assertEquals("v0", restored.value);
+        assertEquals(-1, restored.remaining);
+        assertNull(snapshot.take("k0", now));
+        snapshot.discard("k1");
+        assertFalse(snapshot.isEmpty());
+        assertEquals("v2", snapshot.take("k2", now).value);
+        assertTrue(snapshot.isEmpty());
+        assertNull(snapshot.take("k1", now));
+    }
+
+    @Test
+    public void concurrentTakesNeverLoseAnEntry() throws Exception {
+        Path path = folder.newFile("cache.snapshot").toPath();
+        int threads = 4;
+        List<String> keys = new ArrayList<>();
+        List<CacheObject<String>> cacheObjects = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            keys.add("k" + i);
+            cacheObjects.add(new CacheObject<>("v" + i, -1, 0));
+        }
+        long now = System.currentTimeMillis();
+        CacheSnapshot.write(path, keys, cacheObjects, ValueCodec.utf8(), ValueCodec.utf8(), 0, now);
+        for (int round = 0; round < 200; round++) {
+            CacheSnapshot<String, String> snapshot = CacheSnapshot.open(path, ValueCodec.utf8(), ValueCodec.utf8(), now);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger taken = new AtomicInteger();
+            List<Thread> takers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String key = "k" + i;
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (snapshot.take(key, now) != null) {
+                        taken.incrementAndGet();
+                    }
+                });
+                takers.add(thread);
+                thread.start();
+            }
+            start.countDown();
+            for (Thread thread : takers) {
+                thread.join();
+            }
+            assertEquals(threads, taken.get());
+            assertTrue(snapshot.isEmpty());
+        }
+    }
+
+}
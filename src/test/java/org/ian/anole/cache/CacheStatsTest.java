@@ -0,0 +1,111 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc every read , load and removal is counted once , and latency percentiles come from the histogram
+ **/
+public class CacheStatsTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    private CacheContainer<String, String> container() {
+        return CacheContainer.<String, String>builder()
+                .size(2)
+                .expire(100)
+                .ticker(time::get)
+                .executor(Runnable::run)
+                .recordStats(true)
+                .build();
+    }
+
+    @Test
+    public void readsLoadsAndRemovalsAreCounted() {
+        CacheContainer<String, String> container = container();
+        assertEquals("va", container.getCacheValue("a", k -> "va"));
+        assertEquals("va", container.getCacheValue("a"));
+        // a load that produces nothing fails , so does one that throws
+        container.getCacheValue("b", k -> null);
+        try {
+            container.getCacheValue("c", k -> {
+                throw new IllegalStateException("down");
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("down", e.getMessage());
+        }
+        container.addCacheValue("c", "vc");
+        container.addCacheValue("d", "vd");
+        container.addCacheValue("d", "vd'");
+        container.removeCacheValue("d");
+        time.set(200);
+        container.getCacheValue("c");
+
+        CacheStats stats = container.stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(4, stats.getMissCount());
+        assertEquals(5, stats.getRequestCount());
+        assertEquals(1, stats.getLoadSuccessCount());
+        assertEquals(2, stats.getLoadFailureCount());
+        assertEquals(1, stats.getExpiredReadCount());
+        assertEquals(1, stats.getRemovalCount(RemovalCause.SIZE));
+        assertEquals(1, stats.getRemovalCount(RemovalCause.EXPIRED));
+        assertEquals(1, stats.getRemovalCount(RemovalCause.REPLACED));
+        assertEquals(1, stats.getRemovalCount(RemovalCause.EXPLICIT));
+        assertEquals(2, stats.getEvictionCount());
+        long loads = 0;
+        for (long count : stats.getLoadLatencyHistogram()) {
+            loads += count;
+        }
+        assertEquals(3, loads);
+    }
+
+    @Test
+    public void asyncMissIsCountedOnce() throws Exception {
+        CacheContainer<String, String> container = container();
+        assertEquals("va", container.async().get("a", k -> "va").get());
+        assertEquals("vb", container.getCacheValueAsync("b", k -> "vb"));
+        CacheStats stats = container.stats();
+        assertEquals(2, stats.getMissCount());
+        assertEquals(0, stats.getHitCount());
+        assertEquals(2, stats.getLoadSuccessCount());
+    }
+
+    @Test
+    public void percentilesAreTheUpperBoundOfTheirBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(1500);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(3_000_000);
+        }
+        CacheStats stats = new CacheStats(0, 0, 100, 0, 0, 0, new long[RemovalCause.values().length], histogram.snapshot());
+        // 1500ns falls in [2^10 , 2^11) , 3ms in [2^21 , 2^22)
+        assertEquals((1L << 11) - 1, stats.getLoadLatencyPercentile(0));
+        assertEquals((1L << 11) - 1, stats.getLoadLatencyPercentile(50));
+        assertEquals((1L << 11) - 1, stats.getLoadLatencyPercentile(90));
+        assertEquals((1L << 22) - 1, stats.getLoadLatencyPercentile(91));
+        assertEquals((1L << 22) - 1, stats.getLoadLatencyPercentile(100));
+        assertEquals(0, CacheStats.empty().getLoadLatencyPercentile(99));
+    }
+
+    @Test
+    public void latenciesFallIntoPowerOfTwoBuckets() {
+        assertEquals(0, LatencyHistogram.bucketOf(-1));
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(0, LatencyHistogram.bucketOf(1));
+        assertEquals(1, LatencyHistogram.bucketOf(2));
+        assertEquals(9, LatencyHistogram.bucketOf(1023));
+        assertEquals(10, LatencyHistogram.bucketOf(1024));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+}
@@ -0,0 +1,132 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc the compact store evicts and orders as an access ordered linked hash map does
+ **/
+public class CompactLruCacheStoreTest {
+
+    @Test
+    public void lruOrderMatchesLinkedHashMap() {
+        int maxSize = 50;
+        List<Integer> evicted = new ArrayList<>();
+        List<Integer> expectedEvicted = new ArrayList<>();
+        CompactLruCacheStore<Integer, Integer> store = new CompactLruCacheStore<>(maxSize, (k, v) -> evicted.add(k));
+        Map<Integer, Integer> reference = new LinkedHashMap<Integer, Integer>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                if (size() > maxSize) {
+                    expectedEvicted.add(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            Integer key = random.nextInt(200);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                CacheObject<Integer> cacheObject = store.get(key);
+                Integer value = reference.get(key);
+                assertEquals(value, cacheObject == null ? null : cacheObject.getValue());
+            } else if (op < 9) {
+                store.put(key, store.create(key, i, -1, 0));
+                reference.put(key, i);
+            } else {
+                CacheObject<Integer> cacheObject = store.remove(key);
+                Integer value = reference.remove(key);
+                assertEquals(value, cacheObject == null ? null : cacheObject.getValue());
+            }
+            if (i % 100 == 0) {
+                assertSameOrder(reference, store);
+            }
+        }
+        assertSameOrder(reference, store);
+        assertEquals(expectedEvicted, evicted);
+        assertEquals(reference.size(), store.weightedSize());
+    }
+
+    @Test
+    public void createdEntryIsStoredByIdentity() {
+        CompactLruCacheStore<String, String> store = new CompactLruCacheStore<>(10, null);
+        CacheEntry<String> created = store.create("k", "v", -1, 0);
+        assertNull(store.put("k", created));
+        assertSame(created, store.peek("k"));
+        assertSame(created, store.get("k"));
+
+        // a cache object created elsewhere is held as it is
+        CacheObject<String> foreign = new CacheObject<>("w", -1, 0);
+        assertSame(created, store.put("k", foreign));
+        assertSame(foreign, store.peek("k"));
+
+        // a removed entry put again is not linked twice
+        assertSame(foreign, store.put("k", created));
+        assertSame(created, store.peek("k"));
+        assertTrue(store.remove("k", created));
+        assertNull(store.peek("k"));
+        store.put("k", created);
+        assertSame(created, store.peek("k"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void removeOnlyMatchesTheHeldCacheObject() {
+        CompactLruCacheStore<String, String> store = new CompactLruCacheStore<>(10, null);
+        CacheEntry<String> first = store.create("k", "v1", -1, 0);
+        CacheEntry<String> second = store.create("k", "v2", -1, 0);
+        store.put("k", first);
+        store.put("k", second);
+        assertFalse(store.remove("k", first));
+        assertSame(second, store.peek("k"));
+        assertTrue(store.remove("k", second));
+        assertEquals(0, store.size());
+        assertEquals(0, store.weightedSize());
+    }
+
+    @Test
+    public void resizeKeepsEntriesAndOrder() {
+        CompactLruCacheStore<Integer, Integer> store = new CompactLruCacheStore<>(Long.MAX_VALUE, null);
+        Map<Integer, Integer> reference = new LinkedHashMap<>(16, 0.75F, true);
+        for (int i = 0; i < 5000; i++) {
+            // colliding low bits spread over more buckets as the table grows
+            Integer key = i * 64;
+            store.put(key, store.create(key, i, -1, 0));
+            reference.put(key, i);
+        }
+        for (int i = 0; i < 5000; i += 3) {
+            Integer key = i * 64;
+            assertEquals(reference.get(key), store.get(key).getValue());
+        }
+        assertEquals(5000, store.size());
+        assertSameOrder(reference, store);
+    }
+
+    private static <K, V> void assertSameOrder(Map<K, V> reference, CompactLruCacheStore<K, V> store) {
+        List<K> keys = new ArrayList<>();
+        List<V> values = new ArrayList<>();
+        store.forEach((k, v) -> {
+            keys.add(k);
+            values.add(v.getValue());
+        });
+        assertEquals(new ArrayList<>(reference.keySet()), keys);
+        assertEquals(new ArrayList<>(reference.values()), values);
+        assertEquals(reference.size(), store.size());
+    }
+
+}
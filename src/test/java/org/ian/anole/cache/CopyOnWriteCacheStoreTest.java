@@ -0,0 +1,114 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc read mostly container evicts in write order , single writes stay cheap and bulk replace swaps the table
+ **/
+public class CopyOnWriteCacheStoreTest {
+
+    private final AtomicLong time = new AtomicLong(1000);
+
+    private final List<String> removals = new ArrayList<>();
+
+    private CacheContainer.Builder<Integer, String> builder(int size) {
+        return CacheContainer.<Integer, String>builder()
+                .size(size)
+                .expire(1000)
+                .ticker(time::get)
+                .executor(Runnable::run)
+                .readMostly()
+                .removalListener((k, v, cause) -> removals.add(k + "=" + v + ":" + cause));
+    }
+
+    @Test
+    public void evictsInWriteOrder() {
+        CacheContainer<Integer, String> container = builder(3).build();
+        for (int i = 1; i <= 3; i++) {
+            container.addCacheValue(i, "v" + i);
+        }
+        container.addCacheValue(1, "w1");
+        container.addCacheValue(4, "v4");
+        assertEquals(3, container.getWeight());
+        assertNull(container.getCacheValue(2));
+        assertEquals("w1", container.getCacheValue(1));
+        assertEquals("[1=v1:REPLACED, 2=v2:SIZE]", removals.toString());
+    }
+
+    @Test(timeout = 10000)
+    public void singleWritesDoNotCopyTheTable() {
+        int count = 200000;
+        CacheContainer<Integer, String> container = builder(count / 2).expire(10).proactiveExpire(true).build();
+        for (int i = 0; i < count; i++) {
+            container.addCacheValue(i, "v" + i);
+        }
+        assertEquals(count / 2, container.getWeight());
+        for (int i = count / 2; i < count; i++) {
+            assertEquals("v" + i, container.getCacheValue(i));
+        }
+        time.addAndGet(100);
+        container.cleanUp();
+        assertEquals(0, container.getWeight());
+    }
+
+    @Test
+    public void replaceSwapsAllValues() {
+        CacheContainer<Integer, String> container = builder(10).build();
+        container.addCacheValue(1, "v1");
+        container.addCacheValue(2, "v2");
+        Map<Integer, String> replacement = new LinkedHashMap<>();
+        replacement.put(2, "w2");
+        replacement.put(3, "w3");
+        container.replaceCacheValue(replacement);
+        assertNull(container.getCacheValue(1));
+        assertEquals("w2", container.getCacheValue(2));
+        assertEquals("w3", container.getCacheValue(3));
+        assertEquals(2, container.getWeight());
+        assertTrue(removals.contains("1=v1:EXPLICIT"));
+        assertTrue(removals.contains("2=v2:REPLACED"));
+        assertEquals(2, removals.size());
+    }
+
+    @Test
+    public void replaceEvictsBeyondSize() {
+        CacheContainer<Integer, String> container = builder(2).build();
+        Map<Integer, String> replacement = new LinkedHashMap<>();
+        for (int i = 1; i <= 4; i++) {
+            replacement.put(i, "v" + i);
+        }
+        container.replaceCacheValue(replacement);
+        assertEquals(2, container.getWeight());
+        assertEquals("v3", container.getCacheValue(3));
+        assertEquals("v4", container.getCacheValue(4));
+    }
+
+    @Test
+    public void replaceWorksOnOtherStores() {
+        CacheContainer<Integer, String> container = CacheContainer.<Integer, String>builder()
+                .size(10)
+                .executor(Runnable::run)
+                .removalListener((k, v, cause) -> removals.add(k + "=" + v + ":" + cause))
+                .build();
+        container.addCacheValue(1, "v1");
+        container.addCacheValue(2, "v2");
+        Map<Integer, String> replacement = new LinkedHashMap<>();
+        replacement.put(2, "w2");
+        container.replaceCacheValue(replacement);
+        assertNull(container.getCacheValue(1));
+        assertEquals("w2", container.getCacheValue(2));
+        assertEquals(2, removals.size());
+    }
+
+}
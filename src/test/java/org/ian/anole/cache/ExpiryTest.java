@@ -0,0 +1,147 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc each cache value expires by the time its expiry gives on write and read
+ **/
+public class ExpiryTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    private CacheContainer<String, String> container(Expiry<String, String> expiry) {
+        return CacheContainer.<String, String>builder()
+                .size(10)
+                .expiry(expiry)
+                .ticker(time::get)
+                .proactiveExpire(true)
+                .build();
+    }
+
+    /**
+     * a key is live if a read with fallback does not load it , an expired read would
+     */
+    private static boolean isLive(CacheContainer<String, String> container, String key) {
+        boolean[] loaded = new boolean[1];
+        container.getCacheValue(key, k -> {
+            loaded[0] = true;
+            return null;
+        });
+        return !loaded[0];
+    }
+
+    @Test
+    public void everyValueHasItsOwnExpireTime() {
+        CacheContainer<String, String> container = container((k, v) -> k.startsWith("short") ? 10 : 1000);
+        container.addCacheValue("short", "v");
+        container.addCacheValue("long", "v");
+        time.set(10);
+        assertTrue(isLive(container, "short"));
+        time.set(11);
+        assertFalse(isLive(container, "short"));
+        assertTrue(isLive(container, "long"));
+    }
+
+    @Test
+    public void writeAndUpdateAskTheExpiry() {
+        List<String> writes = new CopyOnWriteArrayList<>();
+        CacheContainer<String, String> container = container((k, v) -> {
+            writes.add(k + "=" + v + "@" + time.get());
+            return 100;
+        });
+        container.addCacheValue("k", "v1");
+        time.set(80);
+        container.addCacheValue("k", "v2");
+        assertEquals(2, writes.size());
+        assertEquals("k=v1@0", writes.get(0));
+        assertEquals("k=v2@80", writes.get(1));
+        // the update expires from its own write time
+        time.set(150);
+        assertTrue(isLive(container, "k"));
+        time.set(181);
+        assertFalse(isLive(container, "k"));
+    }
+
+    @Test
+    public void readAsksTheExpiryWithTheRemainingTime() {
+        List<Long> remainings = new CopyOnWriteArrayList<>();
+        CacheContainer<String, String> container = container(new Expiry<String, String>() {
+            @Override
+            public long expireAfterWrite(String key, String value) {
+                return 100;
+            }
+
+            @Override
+            public long expireAfterRead(String key, String value, long remaining) {
+                remainings.add(remaining);
+                return remaining;
+            }
+        });
+        container.addCacheValue("k", "v");
+        time.set(30);
+        assertEquals("v", container.getCacheValue("k"));
+        time.set(60);
+        assertEquals("v", container.getCacheValue("k"));
+        assertEquals(2, remainings.size());
+        assertEquals(70L, (long) remainings.get(0));
+        assertEquals(40L, (long) remainings.get(1));
+        // keeping the remaining time does not extend it
+        time.set(101);
+        assertFalse(isLive(container, "k"));
+    }
+
+    @Test
+    public void expireAfterAccessIsExtendedByReads() {
+        CacheContainer<String, String> container = container(Expiry.afterAccess(100));
+        container.addCacheValue("k", "v");
+        for (long now = 90; now <= 900; now += 90) {
+            time.set(now);
+            container.cleanUp();
+            assertEquals("v", container.getCacheValue("k"));
+        }
+        // the timer wheel finds the moved expire time once the first one passed
+        time.set(900 + 101 + 2048);
+        container.cleanUp();
+        assertNull(container.getCacheValue("k"));
+    }
+
+    @Test
+    public void neverExpiringValueStays() {
+        CacheContainer<String, String> container = container(Expiry.afterWrite(-1));
+        container.addCacheValue("k", "v");
+        time.set(Long.MAX_VALUE / 2);
+        container.cleanUp();
+        assertTrue(isLive(container, "k"));
+    }
+
+    @Test
+    public void invalidExpireTimeIsRejected() {
+        try {
+            Expiry.afterWrite(-2);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("-2"));
+        }
+        CacheContainer<String, String> container = container((k, v) -> -2);
+        try {
+            container.addCacheValue("k", "v");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("-2"));
+        }
+        assertNull(container.getCacheValue("k"));
+    }
+
+}
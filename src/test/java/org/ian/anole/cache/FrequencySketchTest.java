@@ -0,0 +1,59 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc the sketch counts accesses up to its max frequency and halves them once the sample is full
+ **/
+public class FrequencySketchTest {
+
+    @Test
+    public void estimatesTheAccessCount() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(64);
+        for (int i = 0; i < 7; i++) {
+            sketch.increment("hot");
+        }
+        sketch.increment("cold");
+        assertEquals(7, sketch.frequency("hot"));
+        assertEquals(1, sketch.frequency("cold"));
+        assertEquals(0, sketch.frequency("never"));
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("hot");
+        }
+        assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency("hot"));
+    }
+
+    @Test
+    public void resetHalvesTheCounts() {
+        // the sample is ten increments per cache object
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(16);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(-1);
+        }
+        assertEquals(10, sketch.frequency(-1));
+        // other keys may share counters with it , so its estimate only grows until the reset
+        int increments = 10;
+        int before = sketch.frequency(-1);
+        for (int key = 0; sketch.frequency(-1) >= before; key++) {
+            before = sketch.frequency(-1);
+            sketch.increment(key);
+            increments++;
+        }
+        assertTrue(increments <= 160);
+        assertEquals(before / 2, sketch.frequency(-1));
+    }
+
+    @Test
+    public void clearForgetsEverything() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(16);
+        sketch.increment("k");
+        sketch.clear();
+        assertEquals(0, sketch.frequency("k"));
+    }
+
+}
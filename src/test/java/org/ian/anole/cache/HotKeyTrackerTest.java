@@ -0,0 +1,47 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc reads counted by several threads are summed into one report of the hottest keys
+ **/
+public class HotKeyTrackerTest {
+
+    @Test
+    public void sumsTheReadsOfAllThreads() throws Exception {
+        HotKeyTracker<String> tracker = new HotKeyTracker<>(3, 1, 4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int id = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    tracker.recordRead("hot");
+                    if (i % 2 == 0) {
+                        tracker.recordRead("warm");
+                    }
+                    tracker.recordRead("cold-" + id + "-" + i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        List<HotKeyReport.HotKey<String>> top = tracker.report().getTopReads();
+        assertEquals(3, top.size());
+        assertEquals("hot", top.get(0).getKey());
+        assertTrue(top.get(0).getCount() >= 4000);
+        assertEquals("warm", top.get(1).getKey());
+        assertTrue(top.get(1).getCount() >= 2000);
+    }
+
+}
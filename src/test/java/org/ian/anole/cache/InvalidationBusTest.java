@@ -0,0 +1,125 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc invalidations reach the containers of the same namespace on other nodes , and no others
+ **/
+public class InvalidationBusTest {
+
+    private final InvalidationTransport transport = InvalidationTransport.loopback();
+
+    private final List<AutoCloseable> containers = new ArrayList<>();
+
+    private CacheContainer<String, String> container(String namespace) {
+        CacheContainer<String, String> container = CacheContainer.<String, String>builder()
+                .invalidation(namespace, transport, ValueCodec.utf8(), 60000)
+                .build();
+        containers.add(container);
+        return container;
+    }
+
+    private void closeAll() throws Exception {
+        for (AutoCloseable container : containers) {
+            container.close();
+        }
+    }
+
+    @Test
+    public void invalidatesTheSameNamespaceOnly() throws Exception {
+        CacheContainer<String, String> writer = container("users");
+        CacheContainer<String, String> reader = container("users");
+        CacheContainer<String, String> other = container("orders");
+        reader.addCacheValue("1", "stale");
+        reader.addCacheValue("2", "kept");
+        other.addCacheValue("1", "order");
+        writer.addCacheValue("1", "fresh");
+        writer.removeCacheValue("3");
+        // close publishes the pending batch
+        writer.close();
+        assertNull(reader.getCacheValue("1"));
+        assertEquals("kept", reader.getCacheValue("2"));
+        assertEquals("order", other.getCacheValue("1"));
+        assertEquals("fresh", writer.getCacheValue("1"));
+        closeAll();
+    }
+
+    @Test
+    public void oversizedKeyDoesNotDropTheBatch() throws Exception {
+        CacheContainer<String, String> writer = container("users");
+        CacheContainer<String, String> reader = container("users");
+        char[] chars = new char[70000];
+        Arrays.fill(chars, 'k');
+        String large = new String(chars);
+        reader.addCacheValue("small", "stale");
+        reader.addCacheValue(large, "stale");
+        writer.addCacheValue(large, "fresh");
+        writer.addCacheValue("small", "fresh");
+        writer.close();
+        assertNull(reader.getCacheValue("small"));
+        assertEquals("stale", reader.getCacheValue(large));
+        closeAll();
+    }
+
+    @Test
+    public void closedContainerIgnoresInvalidations() throws Exception {
+        CacheContainer<String, String> writer = container("users");
+        CacheContainer<String, String> reader = container("users");
+        reader.addCacheValue("1", "kept");
+        reader.close();
+        writer.addCacheValue("1", "fresh");
+        writer.close();
+        assertEquals("kept", reader.getCacheValue("1"));
+        closeAll();
+    }
+
+    @Test
+    public void closedContainerIsDetachedFromTheTransport() throws Exception {
+        List<Consumer<byte[]>> receivers = new CopyOnWriteArrayList<>();
+        InvalidationTransport recording = new InvalidationTransport() {
+            @Override
+            public void publish(byte[] message) {
+                for (Consumer<byte[]> receiver : receivers) {
+                    receiver.accept(message);
+                }
+            }
+
+            @Override
+            public void subscribe(Consumer<byte[]> receiver) {
+                receivers.add(receiver);
+            }
+
+            @Override
+            public void unsubscribe(Consumer<byte[]> receiver) {
+                receivers.remove(receiver);
+            }
+        };
+        CacheContainer<String, String> writer = CacheContainer.<String, String>builder()
+                .invalidation("users", recording, ValueCodec.utf8(), 60000)
+                .build();
+        CacheContainer<String, String> reader = CacheContainer.<String, String>builder()
+                .invalidation("users", recording, ValueCodec.utf8(), 60000)
+                .build();
+        assertEquals(2, receivers.size());
+        reader.addCacheValue("1", "kept");
+        reader.close();
+        assertEquals(1, receivers.size());
+        writer.addCacheValue("1", "fresh");
+        writer.close();
+        assertTrue(receivers.isEmpty());
+        assertEquals("kept", reader.getCacheValue("1"));
+    }
+
+}
@@ -0,0 +1,190 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc the long key table finds keys across wrapped probe runs and deletions , and evicts by the clock
+ **/
+public class LongKeyCacheContainerTest {
+
+    /**
+     * table capacity of a container of size 4
+     */
+    private static final int CAPACITY = 8;
+
+    private final AtomicLong time = new AtomicLong();
+
+    /**
+     * home slot of a key in a table of the given capacity , the same spread as the container
+     */
+    private static int slot(long key, int capacity) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (capacity - 1);
+    }
+
+    /**
+     * keys whose home slot is the given slot
+     */
+    private static long[] keysOfSlot(int slot, int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            if (slot(key, CAPACITY) == slot) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    public void collidingKeysWrapAroundTheTable() {
+        LongKeyCacheContainer<String> container = LongKeyCacheContainer.of(4, -1, time::get);
+        // the run starts at the last slot and wraps to the first ones
+        long[] keys = keysOfSlot(CAPACITY - 1, 3);
+        long wrapped = keysOfSlot(0, 1)[0];
+        for (long key : keys) {
+            container.addCacheValue(key, "v" + key);
+        }
+        container.addCacheValue(wrapped, "w");
+        for (long key : keys) {
+            assertEquals("v" + key, container.getCacheValue(key));
+        }
+        assertEquals("w", container.getCacheValue(wrapped));
+        assertEquals(4, container.getCount());
+    }
+
+    @Test
+    public void deleteInTheMiddleOfARunKeepsLaterKeys() {
+        LongKeyCacheContainer<String> container = LongKeyCacheContainer.of(4, -1, time::get);
+        long[] keys = keysOfSlot(CAPACITY - 1, 3);
+        long wrapped = keysOfSlot(0, 1)[0];
+        for (long key : keys) {
+            container.addCacheValue(key, "v" + key);
+        }
+        container.addCacheValue(wrapped, "w");
+        // the second key sits in slot 0 , the keys after it shift back
+        container.removeCacheValue(keys[1]);
+        assertNull(container.getCacheValue(keys[1]));
+        assertEquals("v" + keys[0], container.getCacheValue(keys[0]));
+        assertEquals("v" + keys[2], container.getCacheValue(keys[2]));
+        assertEquals("w", container.getCacheValue(wrapped));
+        container.removeCacheValue(keys[0]);
+        assertEquals("v" + keys[2], container.getCacheValue(keys[2]));
+        assertEquals("w", container.getCacheValue(wrapped));
+        assertEquals(2, container.getCount());
+    }
+
+    @Test
+    public void evictionSkipsReferencedValues() {
+        LongKeyCacheContainer<String> container = LongKeyCacheContainer.of(4, -1, time::get);
+        for (long key = 1; key <= 4; key++) {
+            container.addCacheValue(key, "v" + key);
+        }
+        for (long key = 1; key <= 3; key++) {
+            container.getCacheValue(key);
+        }
+        container.addCacheValue(5, "v5");
+        assertEquals(4, container.getCount());
+        assertNull(container.getCacheValue(4));
+        for (long key = 1; key <= 3; key++) {
+            assertEquals("v" + key, container.getCacheValue(key));
+        }
+        assertEquals("v5", container.getCacheValue(5));
+    }
+
+    @Test
+    public void evictionPrefersExpiredValues() {
+        LongKeyCacheContainer<String> container = LongKeyCacheContainer.of(4, 100, time::get);
+        container.addCacheValue(2, "v2");
+        time.set(50);
+        container.addCacheValue(1, "v1");
+        container.addCacheValue(3, "v3");
+        container.addCacheValue(4, "v4");
+        time.set(60);
+        for (long key = 1; key <= 4; key++) {
+            assertEquals("v" + key, container.getCacheValue(key));
+        }
+        // every value is referenced , only 2 is expired
+        time.set(120);
+        container.addCacheValue(5, "v5");
+        assertEquals(4, container.getCount());
+        assertEquals("v1", container.getCacheValue(1));
+        assertEquals("v3", container.getCacheValue(3));
+        assertEquals("v4", container.getCacheValue(4));
+        assertEquals("v5", container.getCacheValue(5));
+    }
+
+    @Test
+    public void valuesExpireByTheTicker() {
+        LongKeyCacheContainer<String> container = LongKeyCacheContainer.of(10, 100, time::get);
+        container.addCacheValue(1, "v1");
+        time.set(100);
+        assertEquals("v1", container.getCacheValue(1));
+        time.set(101);
+        // an expired value counts until it is read
+        assertEquals(1, container.getCount());
+        assertNull(container.getCacheValue(1));
+        assertEquals(0, container.getCount());
+        assertEquals("v1'", container.getCacheValue(1, k -> "v1'"));
+    }
+
+    @Test
+    public void concurrentMapLoadsShareTheFallback() throws Exception {
+        LongKeyCacheContainer<String> container = LongKeyCacheContainer.of(10, -1, time::get);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<Long, AtomicInteger> loads = new ConcurrentHashMap<>();
+        Function<long[], Map<Long, String>> fallback = keys -> {
+            Map<Long, String> result = new HashMap<>();
+            for (long key : keys) {
+                loads.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                result.put(key, "v" + key);
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        };
+        List<Map<Long, String>> results = new CopyOnWriteArrayList<>();
+        Thread first = new Thread(() -> results.add(container.getCacheValueMap(new long[]{1, 2}, fallback)));
+        first.start();
+        while (first.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        Thread second = new Thread(() -> results.add(container.getCacheValueMap(new long[]{2, 3}, fallback)));
+        second.start();
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        release.countDown();
+        first.join();
+        second.join();
+        assertEquals(3, loads.size());
+        for (AtomicInteger count : loads.values()) {
+            assertEquals(1, count.get());
+        }
+        assertEquals(2, results.size());
+        for (Map<Long, String> result : results) {
+            assertEquals(2, result.size());
+            assertEquals("v2", result.get(2L));
+        }
+        assertEquals(3, container.getCount());
+    }
+
+}
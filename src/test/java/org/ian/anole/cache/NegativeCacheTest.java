@@ -0,0 +1,98 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc a miss is cached for the negative expire time only , and a written value replaces it
+ **/
+public class NegativeCacheTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CacheContainer<String, String> container() {
+        return CacheContainer.<String, String>builder()
+                .size(10)
+                .expire(1000)
+                .negativeExpire(50)
+                .ticker(time::get)
+                .build();
+    }
+
+    private String loadNothing(String key) {
+        loads.incrementAndGet();
+        return null;
+    }
+
+    @Test
+    public void absentIsCachedForTheNegativeExpireTime() {
+        CacheContainer<String, String> container = container();
+        assertNull(container.getCacheValue("k", this::loadNothing));
+        assertNull(container.getCacheValue("k", this::loadNothing));
+        assertTrue(container.isAbsent("k"));
+        time.set(50);
+        assertNull(container.getCacheValue("k", this::loadNothing));
+        assertEquals(1, loads.get());
+        time.set(51);
+        assertFalse(container.isAbsent("k"));
+        assertNull(container.getCacheValue("k", this::loadNothing));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void laterWriteReplacesTheAbsent() {
+        CacheContainer<String, String> container = container();
+        assertNull(container.getCacheValue("k", this::loadNothing));
+        container.addCacheValue("k", "v");
+        assertFalse(container.isAbsent("k"));
+        assertEquals("v", container.getCacheValue("k", this::loadNothing));
+        assertEquals("v", container.getCacheValue("k"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void bulkLoadCachesTheMissingKeysAsAbsent() {
+        CacheContainer<String, String> container = container();
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        List<String> keys = Arrays.asList("a", "b", "c");
+        for (int i = 0; i < 2; i++) {
+            Map<String, String> values = container.getCacheValueMap(keys, v -> v.substring(1), ks -> {
+                calls.add(ks);
+                Map<String, String> loaded = new HashMap<>();
+                loaded.put("a", "va");
+                return loaded;
+            });
+            assertEquals(1, values.size());
+            assertEquals("va", values.get("a"));
+        }
+        assertEquals(1, calls.size());
+        assertTrue(container.isAbsent("b"));
+        assertTrue(container.isAbsent("c"));
+
+        time.set(51);
+        container.getCacheValueMap(keys, v -> v.substring(1), ks -> {
+            calls.add(ks);
+            return new HashMap<>();
+        });
+        assertEquals(2, calls.size());
+        // a is still cached , only the expired absents are loaded again
+        assertEquals(Arrays.asList("b", "c"), calls.get(1));
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc removal notifications of an off heap container carry the removed value
+ **/
+public class OffHeapRemovalTest {
+
+    private final AtomicLong time = new AtomicLong(1000);
+
+    private final List<String> removals = new ArrayList<>();
+
+    private CacheContainer<Integer, String> container(long capacity, boolean concurrent) {
+        CacheContainer.Builder<Integer, String> builder = CacheContainer.<Integer, String>builder()
+                .size(100000)
+                .expire(1000)
+                .ticker(time::get)
+                .executor(Runnable::run)
+                .offHeap(ValueCodec.utf8(), capacity)
+                .removalListener((k, v, cause) -> {
+                    synchronized (removals) {
+                        removals.add(k + "=" + v + ":" + cause);
+                    }
+                });
+        if (concurrent) {
+            builder.concurrencyLevel(4);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void replacedValueIsNotified() {
+        CacheContainer<Integer, String> container = container(1 << 20, false);
+        container.addCacheValue(1, "one");
+        container.addCacheValue(1, "uno");
+        assertEquals("uno", container.getCacheValue(1));
+        assertEquals(1, removals.size());
+        assertEquals("1=one:REPLACED", removals.get(0));
+    }
+
+    @Test
+    public void removedValueIsNotified() {
+        CacheContainer<Integer, String> container = container(1 << 20, true);
+        container.addCacheValue(2, "two");
+        container.removeCacheValue(2);
+        assertEquals(1, removals.size());
+        assertEquals("2=two:EXPLICIT", removals.get(0));
+    }
+
+    @Test
+    public void expiredValueIsNotified() {
+        CacheContainer<Integer, String> container = container(1 << 20, false);
+        container.addCacheValue(3, "three");
+        time.addAndGet(2000);
+        // the expired read answers the old value and loads the fresh one
+        assertEquals("three", container.getCacheValue(3, k -> "fresh"));
+        assertEquals("fresh", container.getCacheValue(3));
+        assertEquals(1, removals.size());
+        assertEquals("3=three:REPLACED", removals.get(0));
+        time.addAndGet(2000);
+        container.getCacheValue(3);
+        assertEquals(2, removals.size());
+        assertEquals("3=fresh:EXPIRED", removals.get(1));
+    }
+
+    @Test
+    public void evictedValueIsNotified() {
+        CacheContainer<Integer, String> container = container(64 * 1024, false);
+        for (int i = 0; i < 10000; i++) {
+            container.addCacheValue(i, "value-" + i);
+        }
+        assertFalse(removals.isEmpty());
+        for (String removal : removals) {
+            assertTrue(removal, removal.matches("(\\d+)=value-\\1:SIZE"));
+        }
+        assertTrue(container.getWeight() <= 64 * 1024);
+    }
+
+    @Test
+    public void chunksAreReused() {
+        CacheContainer<Integer, String> container = container(64 * 1024, false);
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 100; i++) {
+                container.addCacheValue(i, "value-" + round + "-" + i);
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            String value = container.getCacheValue(i);
+            assertNotNull(value);
+            assertEquals("value-99-" + i, value);
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc soft and weak cache values , a collected value is a miss
+ **/
+public class ReferenceValueTest {
+
+    private static final int COUNT = 10000;
+
+    @Test
+    public void collectedValueIsLoadedByFallback() throws InterruptedException {
+        CacheContainer<Integer, String> container = CacheContainer.<Integer, String>builder()
+                .size(COUNT * 2)
+                .expire(60000)
+                .weakValues()
+                .recordStats()
+                .build();
+        for (int i = 0; i < COUNT; i++) {
+            // only the cache refers to the value
+            container.addCacheValue(i, new String("value-" + i));
+        }
+        collect();
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < COUNT; i++) {
+            String value = container.getCacheValue(i, k -> {
+                loads.incrementAndGet();
+                return "value-" + k;
+            });
+            assertEquals("value-" + i, value);
+        }
+        assertTrue("no value was collected", loads.get() > 0);
+    }
+
+    @Test
+    public void collectedValueWithoutFallbackIsRemoved() throws InterruptedException {
+        CacheContainer<Integer, String> container = CacheContainer.<Integer, String>builder()
+                .size(COUNT * 2)
+                .expire(60000)
+                .weakValues()
+                .build();
+        for (int i = 0; i < COUNT; i++) {
+            container.addCacheValue(i, new String("value-" + i));
+        }
+        collect();
+        int missed = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (container.getCacheValue(i) == null) {
+                missed++;
+            }
+        }
+        assertTrue("no value was collected", missed > 0);
+        // the missed keys are gone , not kept as entries without value
+        assertTrue(container.getWeight() <= COUNT - missed);
+        for (int i = 0; i < COUNT; i++) {
+            String value = container.getCacheValue(i, k -> "fresh-" + k);
+            assertTrue(value.equals("value-" + i) || value.equals("fresh-" + i));
+        }
+        assertNull(container.getCacheValue(COUNT));
+    }
+
+    private static void collect() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc a background refresh keeps its slot until the action calls back , however late
+ **/
+public class RefreshTest {
+
+    @Test
+    public void lateCallbackRefreshesOncePerKey() throws Exception {
+        AtomicLong time = new AtomicLong();
+        CacheContainer<String, String> container = CacheContainer.<String, String>builder()
+                .size(10)
+                .expire(1000 * 60 * 60)
+                .refreshAfterWrite(100)
+                .ticker(time::get)
+                .executor(Runnable::run)
+                .build();
+        container.addCacheValue("a", "old");
+        container.addCacheValue("b", "old");
+        time.set(200);
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        List<Thread> callbacks = new ArrayList<>();
+        BiConsumer<String, BiConsumer<String, String>> action = (k, consumer) -> {
+            refreshes.incrementAndGet();
+            // the action returns at once and calls back from another thread later
+            Thread thread = new Thread(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                consumer.accept(k, "new");
+            });
+            callbacks.add(thread);
+            thread.start();
+        };
+        for (int i = 0; i < 5; i++) {
+            assertEquals("old", container.getCacheValueAsync("a", action, k -> "miss"));
+            assertEquals("old", container.getCacheValueAsync("b", action, k -> "miss"));
+        }
+        assertEquals(2, refreshes.get());
+
+        release.countDown();
+        for (Thread thread : callbacks) {
+            thread.join();
+        }
+        assertEquals("new", container.getCacheValue("a"));
+        assertEquals("new", container.getCacheValue("b"));
+    }
+
+    @Test
+    public void lostCallbackIsTakenOverAfterTheTimeout() {
+        AtomicLong time = new AtomicLong();
+        CacheContainer<String, String> container = CacheContainer.<String, String>builder()
+                .size(10)
+                .expire(1000 * 60 * 60)
+                .refreshAfterWrite(100)
+                .ticker(time::get)
+                .executor(Runnable::run)
+                .build();
+        container.addCacheValue("k", "old");
+        time.set(200);
+
+        AtomicInteger refreshes = new AtomicInteger();
+        BiConsumer<String, BiConsumer<String, String>> lost = (k, consumer) -> refreshes.incrementAndGet();
+        container.getCacheValueAsync("k", lost, k -> "miss");
+        container.getCacheValueAsync("k", lost, k -> "miss");
+        assertEquals(1, refreshes.get());
+
+        time.addAndGet(1000 * 60);
+        assertEquals("old", container.getCacheValueAsync("k", (k, consumer) -> {
+            refreshes.incrementAndGet();
+            consumer.accept(k, "new");
+        }, k -> "miss"));
+        assertEquals(2, refreshes.get());
+        assertEquals("new", container.getCacheValue("k"));
+    }
+
+}
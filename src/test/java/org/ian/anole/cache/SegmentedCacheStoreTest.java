@@ -0,0 +1,89 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc segments share the size exactly , and lock free reads still decide the eviction order
+ **/
+public class SegmentedCacheStoreTest {
+
+    private static CacheContainer<Integer, Integer> container(int size, int concurrencyLevel, EvictionPolicy policy) {
+        return CacheContainer.<Integer, Integer>builder()
+                .size(size)
+                .expire(-1)
+                .concurrencyLevel(concurrencyLevel)
+                .evictionPolicy(policy)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Test
+    public void segmentsNeverHoldMoreThanTheSize() {
+        for (int size : new int[]{1, 3, 100, 1001}) {
+            CacheContainer<Integer, Integer> container = container(size, 16, EvictionPolicy.LRU);
+            for (int i = 0; i < 20000; i++) {
+                container.addCacheValue(i, i);
+            }
+            assertEquals(size, container.getWeight());
+        }
+    }
+
+    @Test
+    public void readsMoveKeysAwayFromEviction() {
+        CacheContainer<Integer, Integer> container = container(2, 1, EvictionPolicy.LRU);
+        container.addCacheValue(1, 1);
+        container.addCacheValue(2, 2);
+        assertEquals(Integer.valueOf(1), container.getCacheValue(1));
+        container.addCacheValue(3, 3);
+        assertEquals(Integer.valueOf(1), container.getCacheValue(1));
+        assertNull(container.getCacheValue(2));
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentReadsAndWritesStayWithinTheSize() throws Exception {
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            CacheContainer<Integer, Integer> container = container(1000, 8, policy);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < 50000; i++) {
+                            int key = random.nextInt(5000);
+                            if ((i & 3) == 0) {
+                                container.addCacheValue(key, key);
+                            } else {
+                                Integer value = container.getCacheValue(key);
+                                assertTrue(value == null || value == key);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            if (failure.get() != null) {
+                throw new AssertionError(policy.name(), failure.get());
+            }
+            assertTrue(policy + " holds " + container.getWeight(), container.getWeight() <= 1000);
+        }
+    }
+
+}
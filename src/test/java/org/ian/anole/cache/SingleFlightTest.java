@@ -0,0 +1,156 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc concurrent loads of one key run the loader once and all callers get its value or its exception
+ **/
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * run the owner load on its own thread , then the joiners , and let the owner finish once all
+     * joiners wait for it
+     */
+    private List<Object> race(Function<String, String> owner, int joiners, Function<String, String> joiner) throws Exception {
+        List<Object> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        Thread ownerThread = start(() -> flight.execute("k", owner), results);
+        entered.await();
+        for (int i = 0; i < joiners; i++) {
+            threads.add(start(() -> flight.execute("k", joiner), results));
+        }
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+        }
+        release.countDown();
+        ownerThread.join();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return results;
+    }
+
+    private static Thread start(Supplier<String> load, List<Object> results) {
+        Thread thread = new Thread(() -> {
+            Object result;
+            try {
+                result = load.get();
+            } catch (Throwable e) {
+                result = e;
+            }
+            synchronized (results) {
+                results.add(result);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private String await(String value) {
+        entered.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    @Test(timeout = 10000)
+    public void concurrentLoadsRunTheLoaderOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        List<Object> results = race(k -> {
+            loads.incrementAndGet();
+            return await("v");
+        }, 8, k -> {
+            loads.incrementAndGet();
+            return "joiner";
+        });
+        assertEquals(1, loads.get());
+        assertEquals(9, results.size());
+        for (Object result : results) {
+            assertEquals("v", result);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void joinersGetTheExceptionOfTheLoad() throws Exception {
+        IllegalStateException failure = new IllegalStateException("load failed");
+        List<Object> results = race(k -> {
+            await(null);
+            throw failure;
+        }, 4, k -> "joiner");
+        assertEquals(5, results.size());
+        for (Object result : results) {
+            assertSame(failure, result);
+        }
+        // the failed load is not remembered
+        assertEquals("next", flight.execute("k", k -> "next"));
+    }
+
+    @Test
+    public void recursiveLoadOfTheSameKeyFails() {
+        try {
+            flight.execute("k", k -> flight.execute("k", inner -> "inner"));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("recursive load of the same cache key", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void bulkLoadJoinsKeysInFlight() throws Exception {
+        AtomicReference<List<String>> bulkKeys = new AtomicReference<>();
+        AtomicReference<Map<String, String>> bulkResult = new AtomicReference<>();
+        Thread owner = new Thread(() -> flight.execute("k", k -> await("v")));
+        owner.start();
+        entered.await();
+        Thread bulk = new Thread(() -> bulkResult.set(flight.executeAll(Arrays.asList("k", "a", "a", "b"), ArrayList::new, keys -> {
+            bulkKeys.set(new ArrayList<>(keys));
+            Map<String, String> loaded = new HashMap<>();
+            for (String key : keys) {
+                loaded.put(key, key + "1");
+            }
+            return loaded;
+        })));
+        bulk.start();
+        while (bulk.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        release.countDown();
+        owner.join();
+        bulk.join();
+        assertEquals(Arrays.asList("a", "b"), bulkKeys.get());
+        Map<String, String> expected = new HashMap<>();
+        expected.put("k", "v");
+        expected.put("a", "a1");
+        expected.put("b", "b1");
+        assertEquals(expected, bulkResult.get());
+    }
+
+}
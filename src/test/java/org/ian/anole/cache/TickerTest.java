@@ -0,0 +1,85 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc expire times are measured by the ticker of the container , and a coarse ticker moves by its resolution
+ **/
+public class TickerTest {
+
+    @Test
+    public void containerExpiresByItsTicker() {
+        AtomicLong time = new AtomicLong(1000);
+        CacheContainer<String, String> container = CacheContainer.<String, String>builder()
+                .size(10)
+                .expire(100)
+                .ticker(time::get)
+                .recordStats()
+                .build();
+        container.addCacheValue("k", "v");
+        time.set(1100);
+        assertEquals("v", container.getCacheValue("k"));
+        assertEquals(0, container.stats().getExpiredReadCount());
+        time.set(1101);
+        // the expired value is returned once and dropped
+        container.getCacheValue("k");
+        assertEquals(1, container.stats().getExpiredReadCount());
+        assertNull(container.getCacheValue("k"));
+    }
+
+    @Test
+    public void nanoTimeTickerStartsAtZeroAndNeverGoesBack() {
+        Ticker ticker = Ticker.nanoTime();
+        long previous = ticker.read();
+        assertTrue(previous >= 0 && previous < 1000);
+        for (int i = 0; i < 1000; i++) {
+            long now = ticker.read();
+            assertTrue(now >= previous);
+            previous = now;
+        }
+    }
+
+    @Test
+    public void coarseTickerMovesByItsResolution() throws Exception {
+        long resolution = 50;
+        Ticker ticker = Ticker.coarse(resolution);
+        Set<Long> seen = new HashSet<>();
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        while (System.nanoTime() < end) {
+            long before = System.currentTimeMillis();
+            long now = ticker.read();
+            // it lags the clock by about its resolution and never runs ahead
+            assertTrue(now <= System.currentTimeMillis());
+            assertTrue(now >= before - resolution - 1000);
+            seen.add(now);
+        }
+        // a clock read on every call would see about 200 values
+        assertTrue(seen.size() + " values", seen.size() <= 20);
+        long first = ticker.read();
+        Thread.sleep(resolution * 3);
+        assertTrue(ticker.read() > first);
+    }
+
+    @Test
+    public void coarseTickerResolutionMustBePositive() {
+        try {
+            Ticker.coarse(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("resolution"));
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc the timer wheel collects every cache object once , never before its expire time and at most
+ * one tick after it
+ **/
+public class TimerWheelTest {
+
+    private static final long TICK = 1 << 10;
+
+    @Test
+    public void collectsEveryEntryOnceWithinATick() {
+        Random random = new Random(42);
+        long start = 1_000_000;
+        TimerWheel<Integer, String> wheel = new TimerWheel<>(start, 8);
+        List<CacheEntry<String>> entries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            long expire = (long) (Math.pow(random.nextDouble(), 4) * TimeUnit.DAYS.toMillis(10));
+            CacheEntry<String> entry = new CacheEntry<>("v" + i, expire, start);
+            entries.add(entry);
+            wheel.schedule(i, entry);
+        }
+        Set<Integer> collected = new HashSet<>();
+        long now = start;
+        long end = start + TimeUnit.DAYS.toMillis(10) + 2 * TICK;
+        while (now < end) {
+            now += 1 + random.nextInt((int) TimeUnit.MINUTES.toMillis(random.nextBoolean() ? 1 : 90));
+            List<TimerWheel.Node<Integer, String>> expired = wheel.tryAdvance(now);
+            if (expired != null) {
+                for (TimerWheel.Node<Integer, String> node : expired) {
+                    assertTrue("collected before its expire time", node.time <= now);
+                    assertTrue("collected twice", collected.add(node.key));
+                }
+            }
+            for (int i = 0; i < entries.size(); i++) {
+                if (!collected.contains(i)) {
+                    assertTrue("late by more than a tick", entries.get(i).getExpireTime() >>> 10 >= now >>> 10);
+                }
+            }
+        }
+        assertEquals(entries.size(), collected.size());
+    }
+
+    @Test
+    public void descheduledEntriesAreNotCollected() {
+        TimerWheel<Integer, String> wheel = new TimerWheel<>(0, 1);
+        CacheEntry<String> kept = new CacheEntry<>("kept", 5000, 0);
+        CacheEntry<String> removed = new CacheEntry<>("removed", 5000, 0);
+        wheel.schedule(1, kept);
+        wheel.schedule(2, removed);
+        wheel.deschedule(2, removed);
+        // a retired entry is never scheduled again
+        wheel.schedule(2, removed);
+        List<TimerWheel.Node<Integer, String>> expired = wheel.tryAdvance(10000);
+        assertEquals(1, expired.size());
+        assertEquals(Integer.valueOf(1), expired.get(0).key);
+        assertNull(wheel.tryAdvance(20000));
+    }
+
+    @Test
+    public void containerDropsExpiredValuesWithoutReads() {
+        AtomicLong time = new AtomicLong(1000);
+        List<String> removals = new ArrayList<>();
+        CacheContainer<Integer, String> container = CacheContainer.<Integer, String>builder()
+                .size(100)
+                .expire(2000)
+                .concurrencyLevel(4)
+                .proactiveExpire(true)
+                .ticker(time::get)
+                .executor(Runnable::run)
+                .removalListener((k, v, cause) -> removals.add(k + ":" + cause))
+                .build();
+        for (int i = 0; i < 10; i++) {
+            container.addCacheValue(i, "v" + i);
+        }
+        time.addAndGet(1000);
+        container.cleanUp();
+        assertEquals(10, container.getWeight());
+        time.addAndGet(2 * TICK);
+        container.cleanUp();
+        assertEquals(0, container.getWeight());
+        assertEquals(10, removals.size());
+        assertTrue(removals.stream().allMatch(removal -> removal.endsWith(":EXPIRED")));
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc a frequently read hot set survives a scan , and read probation objects are protected
+ **/
+public class TinyLfuCacheStoreTest {
+
+    private static int hotSurvivors(CacheStore<Integer, Integer> store) {
+        int hot = 50;
+        for (int key = 0; key < hot; key++) {
+            store.put(key, store.create(key, key, -1, 0));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int key = 0; key < hot; key++) {
+                store.get(key);
+            }
+        }
+        // one pass over keys that are never read again
+        for (int key = hot; key < hot + 1000; key++) {
+            store.put(key, store.create(key, key, -1, 0));
+        }
+        int survivors = 0;
+        for (int key = 0; key < hot; key++) {
+            if (store.peek(key) != null) {
+                survivors++;
+            }
+        }
+        return survivors;
+    }
+
+    @Test
+    public void hotSetSurvivesAScan() {
+        TinyLfuCacheStore<Integer, Integer> tinyLfu = new TinyLfuCacheStore<>(100, null);
+        assertTrue(hotSurvivors(tinyLfu) >= 45);
+        assertEquals(100, tinyLfu.size());
+        // the same scan flushes an lru store
+        assertEquals(0, hotSurvivors(new CompactLruCacheStore<>(100, null)));
+    }
+
+    @Test
+    public void readProbationObjectIsProtected() {
+        TinyLfuCacheStore<String, String> store = new TinyLfuCacheStore<>(10, null);
+        for (int i = 0; i < 10; i++) {
+            store.put("k" + i, store.create("k" + i, "v", -1, 0));
+        }
+        // k0 left the window for probation , a read promotes it to protected
+        assertNotNull(store.get("k0"));
+        for (int i = 0; i < 8; i++) {
+            String key = "n" + i;
+            // misses count too , the new keys are more frequent than every old one
+            store.get(key);
+            store.get(key);
+            store.put(key, store.create(key, "v", -1, 0));
+        }
+        assertEquals(10, store.size());
+        // the probation objects were the victims , the protected one was never compared
+        assertNotNull(store.peek("k0"));
+        for (int i = 1; i < 8; i++) {
+            assertNull(store.peek("k" + i));
+        }
+        assertNotNull(store.peek("n7"));
+    }
+
+    @Test
+    public void newestObjectStaysInTheWindow() {
+        TinyLfuCacheStore<String, String> store = new TinyLfuCacheStore<>(10, null);
+        for (int i = 0; i < 100; i++) {
+            store.put("k" + i, store.create("k" + i, "v", -1, 0));
+            assertNotNull(store.peek("k" + i));
+            assertTrue(store.size() <= 10);
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc weighed containers stay within the max weight and track the weight of every write
+ **/
+public class WeigherTest {
+
+    private final List<String> evicted = new ArrayList<>();
+
+    private CacheContainer<String, String> container(EvictionPolicy evictionPolicy, long maxWeight) {
+        return CacheContainer.<String, String>builder()
+                .evictionPolicy(evictionPolicy)
+                .maxWeight(maxWeight)
+                .weigher((k, v) -> v.length())
+                .executor(Runnable::run)
+                .removalListener((k, v, cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        evicted.add(k);
+                    }
+                })
+                .build();
+    }
+
+    private static String value(int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append('v');
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void totalWeightStaysWithinTheMaxWeight() {
+        for (EvictionPolicy evictionPolicy : EvictionPolicy.values()) {
+            CacheContainer<String, String> container = container(evictionPolicy, 100);
+            Random random = new Random(7);
+            for (int i = 0; i < 2000; i++) {
+                container.addCacheValue("k" + random.nextInt(300), value(1 + random.nextInt(20)));
+                assertTrue(evictionPolicy + " weight " + container.getWeight(), container.getWeight() <= 100);
+            }
+            assertTrue(evicted.size() > 0);
+            evicted.clear();
+        }
+    }
+
+    @Test
+    public void zeroWeightValuesDoNotCount() {
+        for (EvictionPolicy evictionPolicy : EvictionPolicy.values()) {
+            CacheContainer<String, String> container = container(evictionPolicy, 10);
+            for (int i = 0; i < 100; i++) {
+                container.addCacheValue("k" + i, "");
+            }
+            assertEquals(0, container.getWeight());
+            assertEquals("", container.getCacheValue("k0"));
+            assertEquals("", container.getCacheValue("k99"));
+            assertTrue(evicted.isEmpty());
+        }
+    }
+
+    @Test
+    public void oversizedValueIsEvictedAlone() {
+        for (EvictionPolicy evictionPolicy : EvictionPolicy.values()) {
+            CacheContainer<String, String> container = container(evictionPolicy, 10);
+            container.addCacheValue("a", "vv");
+            container.addCacheValue("b", "vv");
+            container.addCacheValue("c", "vv");
+            container.addCacheValue("large", value(11));
+            assertNull(container.getCacheValue("large"));
+            assertEquals(evictionPolicy.name(), "vv", container.getCacheValue("a"));
+            assertEquals("vv", container.getCacheValue("b"));
+            assertEquals("vv", container.getCacheValue("c"));
+            assertEquals(6, container.getWeight());
+            assertEquals(1, evicted.size());
+            assertEquals("large", evicted.get(0));
+            evicted.clear();
+        }
+    }
+
+    @Test
+    public void weightTracksReplacesAndRemoves() {
+        for (EvictionPolicy evictionPolicy : EvictionPolicy.values()) {
+            CacheContainer<String, String> container = container(evictionPolicy, 100);
+            container.addCacheValue("a", value(5));
+            container.addCacheValue("b", value(3));
+            assertEquals(8, container.getWeight());
+            container.addCacheValue("a", value(9));
+            assertEquals(12, container.getWeight());
+            container.addCacheValue("b", value(1));
+            assertEquals(10, container.getWeight());
+            container.removeCacheValue("a");
+            assertEquals(1, container.getWeight());
+            container.removeCacheValue("missing");
+            assertEquals(1, container.getWeight());
+            container.clear();
+            assertEquals(0, container.getWeight());
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.ian.anole.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc write behind coalesces writes , retries failed batches a bounded number of times and flushes on close
+ **/
+public class WriteBehindWriterTest {
+
+    private static final long HOUR = 3600_000;
+
+    private final Map<String, String> store = new LinkedHashMap<>();
+
+    private final List<String> failures = new ArrayList<>();
+
+    private final AtomicInteger failing = new AtomicInteger();
+
+    private final CacheWriter<String, String> backend = new CacheWriter<String, String>() {
+
+        @Override
+        public void write(String key, String value) {
+            if (failing.get() > 0) {
+                failing.decrementAndGet();
+                throw new IllegalStateException("store is down");
+            }
+            store.put(key, value);
+        }
+
+        @Override
+        public void delete(String key) {
+            store.remove(key);
+        }
+
+    };
+
+    private void onFailure(Map<String, String> writes, Collection<String> deletes, Throwable cause) {
+        failures.add(writes + " " + deletes + " " + cause.getMessage());
+    }
+
+    @Test
+    public void closeFlushesCoalescedWrites() {
+        store.put("c", "old");
+        WriteBehindWriter<String, String> writer = new WriteBehindWriter<>(backend, HOUR, 100, this::onFailure);
+        writer.write("a", "1");
+        writer.write("a", "2");
+        writer.write("b", "3");
+        writer.delete("c");
+        assertEquals("old", store.get("c"));
+        writer.close();
+        assertEquals("{a=2, b=3}", store.toString());
+        try {
+            writer.write("d", "4");
+            fail();
+        } catch (IllegalStateException e) {
+            // closed
+        }
+        writer.close();
+    }
+
+    @Test
+    public void failedBatchIsRetried() {
+        WriteBehindWriter<String, String> writer = new WriteBehindWriter<>(backend, HOUR, 100, this::onFailure);
+        failing.set(1);
+        writer.write("a", "1");
+        writer.flushNow();
+        assertTrue(store.isEmpty());
+        writer.write("a", "2");
+        writer.flushNow();
+        assertEquals("{a=2}", store.toString());
+        assertTrue(failures.isEmpty());
+        writer.close();
+    }
+
+    @Test
+    public void batchIsDroppedAfterMaxAttempts() {
+        WriteBehindWriter<String, String> writer = new WriteBehindWriter<>(backend, HOUR, 100, this::onFailure);
+        failing.set(Integer.MAX_VALUE);
+        writer.write("a", "1");
+        for (int i = 1; i < WriteBehindWriter.MAX_ATTEMPTS; i++) {
+            writer.flushNow();
+        }
+        assertTrue(failures.isEmpty());
+        writer.flushNow();
+        assertEquals(1, failures.size());
+        assertEquals("{a=1} [] store is down", failures.get(0));
+        failing.set(0);
+        writer.write("b", "2");
+        writer.close();
+        assertEquals("{b=2}", store.toString());
+    }
+
+    @Test
+    public void closeReportsFailedBatch() {
+        WriteBehindWriter<String, String> writer = new WriteBehindWriter<>(backend, HOUR, 100, this::onFailure);
+        failing.set(Integer.MAX_VALUE);
+        writer.write("a", "1");
+        writer.close();
+        assertEquals(1, failures.size());
+    }
+
+    @Test
+    public void containerCloseFlushesWrites() {
+        CacheContainer<String, String> container = CacheContainer.<String, String>builder()
+                .writeBehind(backend, HOUR, 100)
+                .writeFailureListener(this::onFailure)
+                .build();
+        container.addCacheValue("a", "1");
+        container.addCacheValue("b", "2");
+        container.removeCacheValue("a");
+        assertTrue(store.isEmpty());
+        container.close();
+        assertEquals("{b=2}", store.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failureListenerNeedsWriteBehind() {
+        CacheContainer.<String, String>builder()
+                .writer(backend)
+                .writeFailureListener(this::onFailure)
+                .build();
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.ian.anole.time;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc date utils answers as the SimpleDateFormat based date utils did , in several time zones
+ **/
+public class DateUtilsTest {
+
+    private static final String[] ZONES = {"UTC", "Asia/Shanghai", "America/New_York", "Australia/Lord_Howe"};
+
+    private static final String[] PATTERNS = {
+            "yyyy", "yyyy-MM", "yyyy-MM-dd", "yyyy-MM-dd-HH", "yyyy-MM-dd HH:mm:ss", "yyyyMMddHHmmss",
+            "yyyyMMdd", "yy-MM-dd", "yyMMdd", "HH:mm", "yyyy/MM/dd hh:mm a", "yyyy-MM-dd HH:mm:ss.SSS",
+            "yyyy-M-d H:m:s", "'at' yyyy.MM.dd", "dd/MM/yyyy"
+    };
+
+    private static final String[] TEXTS = {
+            "2022-11-14 15:30:33", "2022-11-14", "2022-1-5", "2022", "2022-11", "2022-11-14-15", "2022-13-01",
+            "2022-11-14 25:00:00", "2022-13-xx 15:30", "15:30", "20221114153033", "202211141530331", "20221114",
+            "2022111", "221114", "22-11-14", "  22-11-14", "\t2022-11-14", "2022/11/14 03:30 PM", "abc", "",
+            "2022-03-13 02:30:00", "2022-11-06 01:30:00", "1969-12-31 23:59:59", "2022-02-30", "2022-11-14 15:30:33.5",
+            "2022-11-14 15:30:33.1234", "at 2022.11.14", "14/11/2022", "9999-12-31 23:59:59", "5-1-2 3:4:5"
+    };
+
+    private static final String[] OUTPUTS = {"yyyy-MM-dd HH:mm:ss.SSS", "yy/M/d h:mm a", "yyyyMMddHHmmssSSS", "yyyy"};
+
+    private static final TimeUnit[] UNITS = {
+            TimeUnit.MICROSECONDS, TimeUnit.MILLISECONDS, TimeUnit.SECONDS, TimeUnit.MINUTES, TimeUnit.HOURS, TimeUnit.DAYS
+    };
+
+    @Test
+    public void answersAsLegacyDateUtils() {
+        TimeZone zone = TimeZone.getDefault();
+        List<String> diffs = new ArrayList<>();
+        try {
+            for (String id : ZONES) {
+                TimeZone.setDefault(TimeZone.getTimeZone(id));
+                for (String pattern : PATTERNS) {
+                    for (String text : TEXTS) {
+                        if (comparable(pattern, text)) {
+                            compare(diffs, id, pattern, text);
+                        }
+                    }
+                }
+            }
+        } finally {
+            TimeZone.setDefault(zone);
+        }
+        assertTrue(diffs.size() + " differences , first " + diffs.subList(0, Math.min(diffs.size(), 20)), diffs.isEmpty());
+    }
+
+    /**
+     * SimpleDateFormat reads years before 1583 in the julian calendar , overflows huge years , and counts
+     * signs and spaces into the width of a number abutting the next one , as documented by date utils .
+     * years after 9999 are checked on their own
+     */
+    private static boolean comparable(String pattern, String text) {
+        String year = LegacyDateUtils.convertToStr(text, pattern, "yyyy");
+        if (year != null && (year.length() > 4 || Integer.parseInt(year) < 1583)) {
+            return false;
+        }
+        boolean abutting = pattern.chars().allMatch(Character::isLetter) && pattern.chars().distinct().count() > 1;
+        return !abutting || text.chars().allMatch(Character::isDigit);
+    }
+
+    private static void compare(List<String> diffs, String zone, String pattern, String text) {
+        String at = zone + " | " + pattern + " | " + text + " | ";
+        for (String output : OUTPUTS) {
+            check(diffs, at + "convert " + output, LegacyDateUtils.convertToStr(text, pattern, output), DateUtils.convertToStr(text, pattern, output));
+        }
+        String other = LegacyDateUtils.convertToStr("2021-01-01 12:00:00", DateUtils.YMDHMS, pattern);
+        check(diffs, at + "before", LegacyDateUtils.before(text, other, pattern), DateUtils.before(text, other, pattern));
+        check(diffs, at + "asc", LegacyDateUtils.compareASC(text, other, pattern), DateUtils.compareASC(text, other, pattern));
+        check(diffs, at + "desc", LegacyDateUtils.compareDESC(text, other, pattern), DateUtils.compareDESC(text, other, pattern));
+        for (TimeUnit unit : UNITS) {
+            check(diffs, at + "distance " + unit, LegacyDateUtils.computeDistance(text, other, pattern, unit),
+                    DateUtils.computeDistance(text, other, pattern, unit));
+            // an unparsable text offsets the current time , which is not comparable
+            if (LegacyDateUtils.convertToStr(text, pattern, pattern) != null) {
+                check(diffs, at + "offset " + unit, LegacyDateUtils.getTimeOffsetStr(text, unit, -90, pattern, OUTPUTS[0]),
+                        DateUtils.getTimeOffsetStr(text, unit, -90, pattern, OUTPUTS[0]));
+            }
+        }
+    }
+
+    private static void check(List<String> diffs, String at, Object expected, Object actual) {
+        if (!String.valueOf(expected).equals(String.valueOf(actual))) {
+            diffs.add(at + " : " + expected + " != " + actual);
+        }
+    }
+
+    @Test
+    public void lastAbuttingFieldTakesTheExtraDigits() {
+        assertEquals("2022-11-14 15:35:31", DateUtils.convertToStr("202211141530331", "yyyyMMddHHmmss", DateUtils.YMDHMS));
+    }
+
+    @Test
+    public void yearsAfter9999HaveNoSign() {
+        assertEquals("10000-01-01", DateUtils.getTimeOffsetStr("9999-12-31", TimeUnit.DAYS, 1, DateUtils.YMD, DateUtils.YMD));
+    }
+
+    @Test
+    public void leadingSpacesAreSkipped() {
+        assertEquals("2022-11-14", DateUtils.convertToStr("  22-11-14", "yy-MM-dd", DateUtils.YMD));
+        assertEquals("2022-11-14", DateUtils.convertToStr(" 2022-11-14", DateUtils.YMD, DateUtils.YMD));
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.ian.anole.time;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ian
+ * @date 2026/10/18
+ * @desc fixed date format parses and formats digit patterns as java time does , across zone transitions
+ **/
+public class FixedDateFormatTest {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    private static long utc(int year, int month, int day, int hour, int minute, int second) {
+        return LocalDateTime.of(year, month, day, hour, minute, second).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @Test
+    public void onlyFixedWidthDigitPatternsQualify() {
+        assertNotNull(FixedDateFormat.of(PATTERN, ZoneOffset.UTC));
+        assertNotNull(FixedDateFormat.of("yyyyMMddHHmmssSSS", ZoneOffset.UTC));
+        assertNull(FixedDateFormat.of("yy-MM-dd", ZoneOffset.UTC));
+        assertNull(FixedDateFormat.of("yyyy-M-d", ZoneOffset.UTC));
+        assertNull(FixedDateFormat.of("'at' yyyy", ZoneOffset.UTC));
+        assertNull(FixedDateFormat.of("yyyy/MM/dd hh:mm a", ZoneOffset.UTC));
+        assertNull(FixedDateFormat.of("yyyy-MM-dd yyyy", ZoneOffset.UTC));
+    }
+
+    @Test
+    public void parsesAtAnOffset() {
+        FixedDateFormat format = FixedDateFormat.of(PATTERN, ZoneOffset.UTC);
+        String text = "at=2022-11-14 15:30:33;";
+        assertEquals(utc(2022, 11, 14, 15, 30, 33), format.parse(text, 3));
+        assertEquals(FixedDateFormat.INVALID, format.parse(text, 0));
+        assertEquals(FixedDateFormat.INVALID, format.parse(text, -1));
+        // the date must fit before the end of the text
+        assertEquals(FixedDateFormat.INVALID, format.parse(text, 5));
+        assertEquals(utc(2022, 11, 14, 15, 30, 33), format.parse("2022-11-14 15:30:33 and more"));
+    }
+
+    @Test
+    public void rejectsMalformedAndShortText() {
+        FixedDateFormat format = FixedDateFormat.of(PATTERN, ZoneOffset.UTC);
+        String[] invalid = {
+                "", "2022-11-14", "2022-11-14 15:30:3", "2022-11-14 15:30:3x", "2022/11/14 15:30:33",
+                "2022-13-01 00:00:00", "2022-02-29 00:00:00", "2022-11-31 00:00:00", "2022-11-14 24:00:00",
+                "2022-11-14 15:60:00", "2022-11-14 15:30:60", "0000-01-01 00:00:00", " 2022-11-14 15:30:33"
+        };
+        for (String text : invalid) {
+            assertEquals(text, FixedDateFormat.INVALID, format.parse(text));
+        }
+        assertEquals(utc(2024, 2, 29, 0, 0, 0), format.parse("2024-02-29 00:00:00"));
+    }
+
+    @Test
+    public void formatsIntoACharArrayWithinItsBounds() {
+        FixedDateFormat format = FixedDateFormat.of(PATTERN, ZoneOffset.UTC);
+        char[] buffer = "ts=...................!".toCharArray();
+        assertEquals(22, format.format(utc(2022, 11, 14, 15, 30, 33), buffer, 3));
+        assertEquals("ts=2022-11-14 15:30:33!", new String(buffer));
+        try {
+            format.format(0, buffer, 5);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("ts=2022-11-14 15:30:33!", new String(buffer));
+        }
+        try {
+            format.format(0, buffer, -1);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            format.format(utc(1, 1, 1, 0, 0, 0) - 1, new char[19], 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("year"));
+        }
+    }
+
+    @Test
+    public void appendsToAStringBuilder() {
+        FixedDateFormat format = FixedDateFormat.of("yyyyMMddHHmmssSSS", ZoneOffset.UTC);
+        StringBuilder builder = new StringBuilder("id-");
+        assertSame(builder, format.format(utc(1969, 12, 31, 23, 59, 59) + 999, builder));
+        assertEquals("id-19691231235959999", builder.toString());
+        try {
+            format.format(utc(10000, 1, 1, 0, 0, 0), builder);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // a failed format leaves the builder as it was
+            assertEquals("id-19691231235959999", builder.toString());
+        }
+    }
+
+    @Test
+    public void nowFormatsTheCurrentTime() {
+        FixedDateFormat format = FixedDateFormat.of(PATTERN, NEW_YORK);
+        String before = format.format(System.currentTimeMillis());
+        String now = format.now();
+        String after = format.format(System.currentTimeMillis());
+        assertTrue(now, now.compareTo(before) >= 0 && now.compareTo(after) <= 0);
+        // the text of a year only changes once a year
+        FixedDateFormat year = FixedDateFormat.of("yyyy", NEW_YORK);
+        assertSame(year.now(), year.now());
+    }
+
+    @Test
+    public void followsTheTransitionsOfAZone() {
+        FixedDateFormat format = FixedDateFormat.of(PATTERN, NEW_YORK);
+        // a local time in the spring gap moves forward by the gap , as java time does
+        String gap = "2022-03-13 02:30:00";
+        assertEquals(LocalDateTime.of(2022, 3, 13, 2, 30).atZone(NEW_YORK).toInstant().toEpochMilli(), format.parse(gap));
+        assertEquals("2022-03-13 03:30:00", format.format(format.parse(gap)));
+        assertEquals("2022-03-13 01:59:59", format.format(utc(2022, 3, 13, 6, 59, 59)));
+        assertEquals("2022-03-13 03:00:00", format.format(utc(2022, 3, 13, 7, 0, 0)));
+        // a local time in the autumn overlap takes the later offset
+        String overlap = "2022-11-06 01:30:00";
+        assertEquals(utc(2022, 11, 6, 6, 30, 0), format.parse(overlap));
+        assertEquals(overlap, format.format(utc(2022, 11, 6, 5, 30, 0)));
+        assertEquals(overlap, format.format(utc(2022, 11, 6, 6, 30, 0)));
+        // the cached offset follows instants far apart
+        assertEquals(utc(2022, 7, 1, 16, 0, 0), format.parse("2022-07-01 12:00:00"));
+        assertEquals(utc(2022, 1, 1, 17, 0, 0), format.parse("2022-01-01 12:00:00"));
+        assertEquals(utc(2022, 7, 1, 16, 0, 0), format.parse("2022-07-01 12:00:00"));
+        assertEquals("2022-01-01 12:00:00", format.format(utc(2022, 1, 1, 17, 0, 0)));
+        assertEquals("2022-07-01 12:00:00", format.format(utc(2022, 7, 1, 16, 0, 0)));
+    }
+
+}